@@ -0,0 +1,92 @@
+package com.example.housebackend.config;
+
+import com.example.housebackend.domain.auth.AuthPrincipal;
+import com.example.housebackend.domain.user.User;
+import com.example.housebackend.exception.AccessDeniedException;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+@RequiredArgsConstructor
+public class AuthPrincipalResolver implements HandlerMethodArgumentResolver, HandlerInterceptor {
+
+    public static final String TOKEN_HEADER = "X-Auth-Token";
+
+    private static final String PRINCIPAL_ATTRIBUTE = AuthPrincipalResolver.class.getName() + ".principal";
+    private static final String USER_ATTRIBUTE = AuthPrincipalResolver.class.getName() + ".user";
+
+    private final AuthService authService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RequireRole requireRole = handlerMethod.getMethodAnnotation(RequireRole.class);
+        if (requireRole == null) {
+            requireRole = handlerMethod.getBeanType().getAnnotation(RequireRole.class);
+        }
+        if (requireRole == null) {
+            return true;
+        }
+        AuthPrincipal principal = resolvePrincipal(request);
+        if (requireRole.value().length > 0 && !principal.hasRole(requireRole.value())) {
+            throw new AccessDeniedException("无权访问该资源");
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        if (!parameter.hasParameterAnnotation(CurrentUser.class)) {
+            return false;
+        }
+        Class<?> type = parameter.getParameterType();
+        return type == AuthPrincipal.class || type == User.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        AuthPrincipal principal = resolvePrincipal(request);
+        if (parameter.getParameterType() == AuthPrincipal.class) {
+            return principal;
+        }
+        Object user = request.getAttribute(USER_ATTRIBUTE);
+        if (user == null) {
+            user = authService.loadUser(principal);
+            request.setAttribute(USER_ATTRIBUTE, user);
+        }
+        return user;
+    }
+
+    private AuthPrincipal resolvePrincipal(HttpServletRequest request) {
+        Object cached = request.getAttribute(PRINCIPAL_ATTRIBUTE);
+        if (cached instanceof AuthPrincipal principal) {
+            return principal;
+        }
+        String token = request.getHeader(TOKEN_HEADER);
+        // 与原先各接口校验令牌时一致，缺少令牌按请求错误返回 400
+        if (!StringUtils.hasText(token)) {
+            throw new BadRequestException("缺少认证信息");
+        }
+        AuthPrincipal principal = authService.requirePrincipal(token);
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        return principal;
+    }
+}
@@ -19,6 +19,7 @@ import com.example.housebackend.repository.SubwayLineRepository;
 import com.example.housebackend.repository.SystemAnnouncementRepository;
 import com.example.housebackend.repository.UserRepository;
 import com.example.housebackend.repository.LandlordCertificationRepository;
+import com.example.housebackend.service.GeoHash;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -145,6 +146,9 @@ public class DataInitializer implements CommandLineRunner {
         cityLoft.setLayout("1室1厅1卫");
         cityLoft.setOrientation("南北通透");
         cityLoft.setAddress("人民路 88 号时代广场 A 座");
+        cityLoft.setLatitude(31.2304);
+        cityLoft.setLongitude(121.4737);
+        cityLoft.setGeohash(GeoHash.encode(31.2304, 121.4737));
         cityLoft.setAvailableFrom(LocalDate.now().plusDays(3));
         cityLoft.setOwner(landlord);
         cityLoft.setRegion(regions.get("市中心"));
@@ -161,6 +165,9 @@ public class DataInitializer implements CommandLineRunner {
         techPark.setLayout("2室2厅1卫");
         techPark.setOrientation("朝南");
         techPark.setAddress("软件园一路 66 号云谷公寓");
+        techPark.setLatitude(31.2010);
+        techPark.setLongitude(121.5930);
+        techPark.setGeohash(GeoHash.encode(31.2010, 121.5930));
         techPark.setAvailableFrom(LocalDate.now().plusWeeks(1));
         techPark.setOwner(landlord);
         techPark.setRegion(regions.get("高新区"));
@@ -176,6 +183,9 @@ public class DataInitializer implements CommandLineRunner {
         riverSide.setLayout("3室2厅2卫");
         riverSide.setOrientation("朝南");
         riverSide.setAddress("滨江花园 3 期 12 栋");
+        riverSide.setLatitude(31.2400);
+        riverSide.setLongitude(121.4900);
+        riverSide.setGeohash(GeoHash.encode(31.2400, 121.4900));
         riverSide.setAvailableFrom(LocalDate.now().plusDays(10));
         riverSide.setOwner(landlord);
         riverSide.setRegion(regions.get("临河区"));
@@ -0,0 +1,19 @@
+package com.example.housebackend.config;
+
+import com.example.housebackend.domain.user.UserRole;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明接口允许访问的角色；未指定角色时仅要求已登录。
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequireRole {
+
+    UserRole[] value() default {};
+}
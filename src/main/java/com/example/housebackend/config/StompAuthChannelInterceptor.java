@@ -1,11 +1,18 @@
 package com.example.housebackend.config;
 
+import com.example.housebackend.domain.auth.AuthPrincipal;
+import com.example.housebackend.domain.user.UserRole;
 import com.example.housebackend.exception.AccessDeniedException;
+import com.example.housebackend.exception.BadRequestException;
 import com.example.housebackend.service.AuthService;
+import java.time.Duration;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.handler.invocation.HandlerMethodArgumentResolver;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
@@ -13,30 +20,89 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 @Component
-@RequiredArgsConstructor
-public class StompAuthChannelInterceptor implements ChannelInterceptor {
+public class StompAuthChannelInterceptor implements ChannelInterceptor, HandlerMethodArgumentResolver {
 
-    public static final String SESSION_TOKEN_KEY = "chatToken";
+    public static final String SESSION_AUTH_KEY = "chatAuth";
+
+    private static final String ADMIN_TOPIC_PREFIX = "/topic/admin/";
 
     private final AuthService authService;
+    private final long revalidateNanos;
+
+    public StompAuthChannelInterceptor(AuthService authService,
+                                       @Value("${app.websocket.auth-revalidate-interval:PT1M}") Duration revalidateInterval) {
+        this.authService = authService;
+        this.revalidateNanos = revalidateInterval.toNanos();
+    }
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
-        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+        StompCommand command = accessor.getCommand();
+        if (StompCommand.CONNECT.equals(command)) {
             String token = resolveToken(accessor);
             if (!StringUtils.hasText(token)) {
                 throw new AccessDeniedException("缺少认证信息");
             }
-            authService.requireUser(token);
+            // 先取得用户再读其失效计数，随后复核一次，避免两步之间的注销被遗漏
+            long epoch = authService.revocationEpoch(authService.requirePrincipal(token).id());
+            AuthPrincipal principal = authService.requirePrincipal(token);
+            if (principal.fullName() == null) {
+                principal = AuthPrincipal.of(authService.loadUser(principal));
+            }
             Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
             if (sessionAttributes != null) {
-                sessionAttributes.put(SESSION_TOKEN_KEY, token);
+                sessionAttributes.put(SESSION_AUTH_KEY, new SessionAuth(token, principal, System.nanoTime(), epoch));
+            }
+        } else if (StompCommand.SEND.equals(command) || StompCommand.SUBSCRIBE.equals(command)) {
+            AuthPrincipal principal = revalidateIfStale(accessor.getSessionAttributes());
+            String destination = accessor.getDestination();
+            if (StompCommand.SUBSCRIBE.equals(command) && destination != null
+                    && destination.startsWith(ADMIN_TOPIC_PREFIX) && !principal.hasRole(UserRole.ADMIN)) {
+                throw new AccessDeniedException("无权订阅管理员频道");
             }
         }
         return message;
     }
 
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && AuthPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, Message<?> message) {
+        Map<String, Object> sessionAttributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        return requireSession(sessionAttributes).principal();
+    }
+
+    private AuthPrincipal revalidateIfStale(Map<String, Object> sessionAttributes) {
+        SessionAuth session = requireSession(sessionAttributes);
+        long epoch = authService.revocationEpoch(session.principal().id());
+        if (session.epoch() == epoch && System.nanoTime() - session.validatedAt() < revalidateNanos) {
+            return session.principal();
+        }
+        AuthPrincipal verified;
+        try {
+            verified = authService.requirePrincipal(session.token());
+        } catch (BadRequestException ex) {
+            sessionAttributes.remove(SESSION_AUTH_KEY);
+            throw new AccessDeniedException("登录已失效，请重新连接");
+        }
+        AuthPrincipal principal = verified.fullName() != null ? verified : session.principal();
+        sessionAttributes.put(SESSION_AUTH_KEY, new SessionAuth(session.token(), principal, System.nanoTime(), epoch));
+        return principal;
+    }
+
+    private SessionAuth requireSession(Map<String, Object> sessionAttributes) {
+        Object session = sessionAttributes != null ? sessionAttributes.get(SESSION_AUTH_KEY) : null;
+        if (!(session instanceof SessionAuth auth)) {
+            throw new AccessDeniedException("缺少认证信息");
+        }
+        return auth;
+    }
+
     private String resolveToken(StompHeaderAccessor accessor) {
         String token = accessor.getFirstNativeHeader("X-Auth-Token");
         if (StringUtils.hasText(token)) {
@@ -48,4 +114,7 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
         }
         return null;
     }
+
+    private record SessionAuth(String token, AuthPrincipal principal, long validatedAt, long epoch) {
+    }
 }
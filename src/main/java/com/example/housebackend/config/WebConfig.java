@@ -2,17 +2,51 @@ package com.example.housebackend.config;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    static {
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
+    private final AuthPrincipalResolver authPrincipalResolver;
+
     @Value("${app.upload-dir:upload}")
     private String uploadDir;
 
+    // 替换 Spring Boot 默认的全局 open-in-view：登录、注册与改密码要在数据库连接之外排队计算 BCrypt，
+    // 若整个请求绑定 EntityManager，首次查询拿到的连接会一直占到请求结束
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns("/api/auth/**", "/api/users/me/password");
+        registry.addInterceptor(authPrincipalResolver)
+                .addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(authPrincipalResolver);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path rootLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
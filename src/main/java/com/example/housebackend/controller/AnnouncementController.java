@@ -1,12 +1,13 @@
 package com.example.housebackend.controller;
 
-import com.example.housebackend.domain.user.User;
+import com.example.housebackend.config.CurrentUser;
+import com.example.housebackend.config.RequireRole;
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.domain.user.UserRole;
 import com.example.housebackend.dto.DtoMapper;
 import com.example.housebackend.dto.announcement.AnnouncementRequest;
 import com.example.housebackend.dto.announcement.AnnouncementResponse;
 import com.example.housebackend.service.AnnouncementService;
-import com.example.housebackend.service.AuthService;
 import java.util.List;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,7 +22,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,7 +33,6 @@ import org.springframework.web.bind.annotation.RestController;
 public class AnnouncementController {
 
     private final AnnouncementService announcementService;
-    private final AuthService authService;
 
     @GetMapping
     @Operation(summary = "分页查询公告", description = "按页获取系统公告列表")
@@ -55,44 +54,34 @@ public class AnnouncementController {
 
     @PostMapping
     @Operation(summary = "创建公告", description = "管理员创建新的系统公告")
-    public ResponseEntity<AnnouncementResponse> create(@RequestHeader("X-Auth-Token") String token,
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<AnnouncementResponse> create(@CurrentUser AuthPrincipal admin,
                                                        @RequestBody AnnouncementRequest request) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
         var announcement = new com.example.housebackend.domain.announcement.SystemAnnouncement();
         announcement.setTitle(request.title());
         announcement.setContent(request.content());
         announcement.setPinned(request.pinned());
-        return ResponseEntity.ok(DtoMapper.toAnnouncement(announcementService.create(admin.getId(), announcement)));
+        return ResponseEntity.ok(DtoMapper.toAnnouncement(announcementService.create(admin.id(), announcement)));
     }
 
     @PutMapping("/{announcementId}")
     @Operation(summary = "更新公告", description = "管理员根据 ID 修改公告内容")
-    public ResponseEntity<AnnouncementResponse> update(@RequestHeader("X-Auth-Token") String token,
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<AnnouncementResponse> update(@CurrentUser AuthPrincipal admin,
                                                        @PathVariable Long announcementId,
                                                        @RequestBody AnnouncementRequest request) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
         var announcement = new com.example.housebackend.domain.announcement.SystemAnnouncement();
         announcement.setTitle(request.title());
         announcement.setContent(request.content());
         announcement.setPinned(request.pinned());
-        return ResponseEntity.ok(DtoMapper.toAnnouncement(announcementService.update(admin.getId(), announcementId, announcement)));
+        return ResponseEntity.ok(DtoMapper.toAnnouncement(announcementService.update(admin.id(), announcementId, announcement)));
     }
 
     @DeleteMapping("/{announcementId}")
     @Operation(summary = "删除公告", description = "管理员根据 ID 删除系统公告")
-    public ResponseEntity<Void> delete(@RequestHeader("X-Auth-Token") String token,
-                                       @PathVariable Long announcementId) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<Void> delete(@PathVariable Long announcementId) {
         announcementService.delete(announcementId);
         return ResponseEntity.noContent().build();
     }
-
-    private void ensureRole(User user, UserRole role) {
-        if (user.getRole() != role) {
-            throw new com.example.housebackend.exception.AccessDeniedException("无权访问该资源");
-        }
-    }
 }
@@ -1,13 +1,12 @@
 package com.example.housebackend.controller;
 
-import com.example.housebackend.config.StompAuthChannelInterceptor;
+import com.example.housebackend.config.CurrentUser;
 import com.example.housebackend.domain.chat.ChatMessage;
 import com.example.housebackend.domain.contact.ContactRecord;
-import com.example.housebackend.domain.user.User;
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.dto.DtoMapper;
 import com.example.housebackend.dto.chat.ChatMessageRequest;
 import com.example.housebackend.dto.chat.ChatMessageResponse;
-import com.example.housebackend.service.AuthService;
 import com.example.housebackend.service.ChatService;
 import java.util.List;
 import java.util.HashSet;
@@ -16,29 +15,19 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
 @Controller
 @RequiredArgsConstructor
 public class ChatWebSocketController {
 
-    private final AuthService authService;
     private final ChatService chatService;
     private final SimpMessagingTemplate messagingTemplate;
 
     @MessageMapping("/contacts/{contactId}/messages")
     public void handleMessage(@DestinationVariable Long contactId,
                               ChatMessageRequest request,
-                              StompHeaderAccessor headerAccessor) {
-        java.util.Map<String, Object> sessionAttributes = headerAccessor.getSessionAttributes();
-        String token = sessionAttributes != null
-                ? (String) sessionAttributes.get(StompAuthChannelInterceptor.SESSION_TOKEN_KEY)
-                : null;
-        if (token == null) {
-            throw new com.example.housebackend.exception.AccessDeniedException("缺少认证信息");
-        }
-        User sender = authService.requireUser(token);
+                              @CurrentUser AuthPrincipal sender) {
         String content = request != null ? request.content() : null;
         List<String> imageUrls = request != null ? request.imageUrls() : null;
         ChatMessage savedMessage = chatService.sendMessage(contactId, sender, content, imageUrls);
@@ -4,9 +4,11 @@ import com.example.housebackend.exception.AccessDeniedException;
 import com.example.housebackend.exception.BadRequestException;
 import com.example.housebackend.exception.BusinessException;
 import com.example.housebackend.exception.ResourceNotFoundException;
+import com.example.housebackend.exception.ServiceUnavailableException;
 import java.time.Instant;
 import java.util.Map;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +32,16 @@ public class GlobalExceptionHandler {
         return response(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleUnavailable(ServiceUnavailableException ex) {
+        return response(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(ObjectOptimisticLockingFailureException ex) {
+        return response(HttpStatus.CONFLICT, "数据已被其他操作修改，请刷新后重试");
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Map<String, Object>> handleBusiness(BusinessException ex) {
         return response(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
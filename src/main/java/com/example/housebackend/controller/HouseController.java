@@ -1,42 +1,53 @@
 package com.example.housebackend.controller;
 
+import com.example.housebackend.config.CurrentUser;
+import com.example.housebackend.config.RequireRole;
 import com.example.housebackend.domain.house.House;
 import com.example.housebackend.domain.house.HouseStatus;
 import com.example.housebackend.domain.house.HouseMedia;
 import com.example.housebackend.domain.location.Region;
 import com.example.housebackend.domain.location.SubwayLine;
-import com.example.housebackend.domain.user.User;
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.dto.CursorPage;
 import com.example.housebackend.dto.DtoMapper;
+import com.example.housebackend.dto.house.HouseAvailabilityResponse;
+import com.example.housebackend.dto.house.HouseFacetsResponse;
 import com.example.housebackend.dto.house.HouseMediaRequest;
 import com.example.housebackend.dto.house.FavoriteResponse;
 import com.example.housebackend.dto.house.HouseRequest;
 import com.example.housebackend.dto.house.HouseResponse;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.dto.house.NearbyHouseResponse;
+import com.example.housebackend.exception.BadRequestException;
 import com.example.housebackend.exception.ResourceNotFoundException;
 import com.example.housebackend.repository.RegionRepository;
 import com.example.housebackend.repository.SubwayLineRepository;
-import com.example.housebackend.service.AuthService;
 import com.example.housebackend.service.HouseService;
 import com.example.housebackend.domain.common.MediaType;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -47,23 +58,104 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "房源管理", description = "管理房源的搜索、发布、收藏与推荐等功能")
 public class HouseController {
 
-    private final AuthService authService;
     private final HouseService houseService;
     private final RegionRepository regionRepository;
     private final SubwayLineRepository subwayLineRepository;
 
     @GetMapping("/search")
-    @Operation(summary = "房源搜索", description = "按地区、地铁或状态过滤房源，并支持分页")
+    @Operation(summary = "房源搜索", description = "按地区、地铁、状态、租金/面积区间、户型、配套（amenities=a,b 需同时具备）、入住日期或可租日期过滤房源，并支持分页；传入 keyword 时按标题、描述、地址与配套的相关度（BM25）排序")
     public ResponseEntity<Page<HouseResponse>> search(@RequestParam(required = false) Long regionId,
                                                       @RequestParam(required = false) Long subwayId,
                                                       @RequestParam(required = false) HouseStatus status,
+                                                      @RequestParam(required = false) BigDecimal minPrice,
+                                                      @RequestParam(required = false) BigDecimal maxPrice,
+                                                      @RequestParam(required = false) Double minArea,
+                                                      @RequestParam(required = false) Double maxArea,
+                                                      @RequestParam(required = false) String layout,
+                                                      @RequestParam(required = false) Set<String> amenities,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate moveInBy,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableFrom,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableTo,
+                                                      @RequestParam(required = false) String keyword,
                                                       @RequestParam(defaultValue = "0") int page,
                                                       @RequestParam(defaultValue = "10") int size) {
+        HouseSearchCriteria criteria = new HouseSearchCriteria(regionId, subwayId, status, minPrice, maxPrice,
+                minArea, maxArea, layout, amenities, moveInBy, availableFrom, availableTo);
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<House> houses = houseService.search(regionId, subwayId, status, pageable);
+        Page<House> houses = StringUtils.hasText(keyword)
+                ? houseService.searchText(keyword, criteria, pageable)
+                : houseService.search(criteria, pageable);
         return ResponseEntity.ok(houses.map(DtoMapper::toHouse));
     }
 
+    @GetMapping(value = "/search", params = "after")
+    @Operation(summary = "房源游标搜索", description = "按发布时间倒序的游标分页，首页传空的 after，之后传上一页返回的 nextCursor；不统计总数")
+    public ResponseEntity<CursorPage<HouseResponse>> searchAfter(@RequestParam(required = false) Long regionId,
+                                                                 @RequestParam(required = false) Long subwayId,
+                                                                 @RequestParam(required = false) HouseStatus status,
+                                                                 @RequestParam(required = false) BigDecimal minPrice,
+                                                                 @RequestParam(required = false) BigDecimal maxPrice,
+                                                                 @RequestParam(required = false) Double minArea,
+                                                                 @RequestParam(required = false) Double maxArea,
+                                                                 @RequestParam(required = false) String layout,
+                                                                 @RequestParam(required = false) Set<String> amenities,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate moveInBy,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableFrom,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate availableTo,
+                                                                 @RequestParam(required = false) String after,
+                                                                 @RequestParam(defaultValue = "10") int size) {
+        int limit = Math.max(1, Math.min(size, 100));
+        HouseSearchCriteria criteria = new HouseSearchCriteria(regionId, subwayId, status, minPrice, maxPrice,
+                minArea, maxArea, layout, amenities, moveInBy, availableFrom, availableTo);
+        CursorPage<House> houses = houseService.searchAfter(criteria, after, limit);
+        return ResponseEntity.ok(houses.map(DtoMapper::toHouse));
+    }
+
+    @GetMapping("/nearby")
+    @Operation(summary = "附近房源", description = "传 lat/lng 按半径（radius，单位米，默认 2000）搜索，或传 minLat/maxLat/minLng/maxLng 按矩形范围搜索；结果按距离由近到远排列，翻页传上一页返回的 nextCursor")
+    public ResponseEntity<CursorPage<NearbyHouseResponse>> nearby(@RequestParam(required = false) Double lat,
+                                                                  @RequestParam(required = false) Double lng,
+                                                                  @RequestParam(required = false) Double radius,
+                                                                  @RequestParam(required = false) Double minLat,
+                                                                  @RequestParam(required = false) Double maxLat,
+                                                                  @RequestParam(required = false) Double minLng,
+                                                                  @RequestParam(required = false) Double maxLng,
+                                                                  @RequestParam(required = false) Long regionId,
+                                                                  @RequestParam(required = false) Long subwayId,
+                                                                  @RequestParam(required = false) HouseStatus status,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(defaultValue = "10") int size) {
+        int limit = Math.max(1, Math.min(size, 100));
+        HouseSearchCriteria criteria = new HouseSearchCriteria(regionId, subwayId, status, null, null,
+                null, null, null, null, null, null, null);
+        if (minLat != null && maxLat != null && minLng != null && maxLng != null) {
+            return ResponseEntity.ok(houseService.withinBox(criteria, minLat, maxLat, minLng, maxLng, lat, lng,
+                    after, limit));
+        }
+        if (lat == null || lng == null) {
+            throw new BadRequestException("请提供中心点经纬度或完整的矩形范围");
+        }
+        return ResponseEntity.ok(houseService.nearby(criteria, lat, lng, radius, after, limit));
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "搜索分面统计", description = "按与房源搜索相同的条件统计已发布房源在地区、地铁、户型、价格区间与配套上的数量；某一维度的计数不受该维度自身条件限制，可租日期不参与统计")
+    public ResponseEntity<HouseFacetsResponse> facets(@RequestParam(required = false) Long regionId,
+                                                      @RequestParam(required = false) Long subwayId,
+                                                      @RequestParam(required = false) HouseStatus status,
+                                                      @RequestParam(required = false) BigDecimal minPrice,
+                                                      @RequestParam(required = false) BigDecimal maxPrice,
+                                                      @RequestParam(required = false) Double minArea,
+                                                      @RequestParam(required = false) Double maxArea,
+                                                      @RequestParam(required = false) String layout,
+                                                      @RequestParam(required = false) Set<String> amenities,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate moveInBy,
+                                                      @RequestParam(required = false) String keyword) {
+        HouseSearchCriteria criteria = new HouseSearchCriteria(regionId, subwayId, status, minPrice, maxPrice,
+                minArea, maxArea, layout, amenities, moveInBy, null, null);
+        return ResponseEntity.ok(houseService.facets(keyword, criteria));
+    }
+
     @GetMapping("/latest")
     @Operation(summary = "最新房源", description = "获取最近发布的房源列表")
     public ResponseEntity<List<HouseResponse>> latest() {
@@ -94,76 +186,77 @@ public class HouseController {
         return ResponseEntity.ok(DtoMapper.toHouse(houseService.requireHouse(houseId)));
     }
 
+    @GetMapping("/{houseId}/availability")
+    @Operation(summary = "房源档期", description = "查询房源在指定日期范围内已确认或生效中的租期，默认未来 180 天")
+    public ResponseEntity<HouseAvailabilityResponse> availability(@PathVariable Long houseId,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(houseService.availability(houseId, from, to));
+    }
+
     @GetMapping("/mine")
     @Operation(summary = "我的房源", description = "房东分页查看自己发布的房源")
-    public ResponseEntity<Page<HouseResponse>> myHouses(@RequestHeader("X-Auth-Token") String token,
+    @RequireRole(UserRole.LANDLORD)
+    public ResponseEntity<Page<HouseResponse>> myHouses(@CurrentUser AuthPrincipal landlord,
                                                         @RequestParam(defaultValue = "0") int page,
                                                         @RequestParam(defaultValue = "10") int size) {
-        User landlord = authService.requireUser(token);
-        ensureRole(landlord, UserRole.LANDLORD);
-        Page<House> houses = houseService.listByOwner(landlord.getId(), PageRequest.of(page, size));
+        Page<House> houses = houseService.listByOwner(landlord.id(), PageRequest.of(page, size));
         return ResponseEntity.ok(houses.map(DtoMapper::toHouse));
     }
 
     @PostMapping
     @Operation(summary = "发布房源", description = "房东创建新的房源信息")
-    public ResponseEntity<HouseResponse> createHouse(@RequestHeader("X-Auth-Token") String token,
+    @RequireRole(UserRole.LANDLORD)
+    public ResponseEntity<HouseResponse> createHouse(@CurrentUser AuthPrincipal landlord,
                                                      @Valid @RequestBody HouseRequest request) {
-        User landlord = authService.requireUser(token);
-        ensureRole(landlord, UserRole.LANDLORD);
         House house = toHouseEntity(request);
         house.replaceMedia(toHouseMediaEntities(request.media()));
-        House saved = houseService.createHouse(landlord.getId(), house);
+        House saved = houseService.createHouse(landlord.id(), house);
         return ResponseEntity.ok(DtoMapper.toHouse(saved));
     }
 
     @PutMapping("/{houseId}")
     @Operation(summary = "更新房源", description = "房东修改已发布的房源信息")
-    public ResponseEntity<HouseResponse> updateHouse(@RequestHeader("X-Auth-Token") String token,
+    @RequireRole(UserRole.LANDLORD)
+    public ResponseEntity<HouseResponse> updateHouse(@CurrentUser AuthPrincipal landlord,
                                                      @PathVariable Long houseId,
                                                      @Valid @RequestBody HouseRequest request) {
-        User landlord = authService.requireUser(token);
-        ensureRole(landlord, UserRole.LANDLORD);
         House house = toHouseEntity(request);
         house.setStatus(HouseStatus.PUBLISHED);
         house.replaceMedia(toHouseMediaEntities(request.media()));
-        House updated = houseService.updateHouse(landlord.getId(), houseId, house);
+        House updated = houseService.updateHouse(landlord.id(), houseId, house);
         return ResponseEntity.ok(DtoMapper.toHouse(updated));
     }
 
     @DeleteMapping("/{houseId}")
     @Operation(summary = "删除房源", description = "房东删除自己发布的房源")
-    public ResponseEntity<Void> deleteHouse(@RequestHeader("X-Auth-Token") String token,
+    @RequireRole(UserRole.LANDLORD)
+    public ResponseEntity<Void> deleteHouse(@CurrentUser AuthPrincipal landlord,
                                             @PathVariable Long houseId) {
-        User landlord = authService.requireUser(token);
-        ensureRole(landlord, UserRole.LANDLORD);
-        houseService.deleteHouse(landlord.getId(), houseId);
+        houseService.deleteHouse(landlord.id(), houseId);
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/{houseId}/favorite")
     @Operation(summary = "切换收藏", description = "用户收藏或取消收藏指定房源")
-    public ResponseEntity<String> toggleFavorite(@RequestHeader("X-Auth-Token") String token,
+    public ResponseEntity<String> toggleFavorite(@CurrentUser AuthPrincipal user,
                                                  @PathVariable Long houseId) {
-        User user = authService.requireUser(token);
-        boolean favorited = houseService.toggleFavorite(user.getId(), houseId);
+        boolean favorited = houseService.toggleFavorite(user.id(), houseId);
         return ResponseEntity.ok(favorited ? "收藏成功" : "已取消收藏");
     }
 
     @GetMapping("/favorites")
     @Operation(summary = "我的收藏", description = "用户查看自己收藏的房源列表")
-    public ResponseEntity<List<FavoriteResponse>> favorites(@RequestHeader("X-Auth-Token") String token) {
-        User user = authService.requireUser(token);
-        return ResponseEntity.ok(houseService.listFavorites(user.getId()).stream()
+    public ResponseEntity<List<FavoriteResponse>> favorites(@CurrentUser AuthPrincipal user) {
+        return ResponseEntity.ok(houseService.listFavorites(user.id()).stream()
                 .map(DtoMapper::toFavorite)
                 .collect(Collectors.toList()));
     }
 
     @GetMapping("/favorites/all")
     @Operation(summary = "全部收藏", description = "管理员查看平台所有收藏记录")
-    public ResponseEntity<List<FavoriteResponse>> allFavorites(@RequestHeader("X-Auth-Token") String token) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<List<FavoriteResponse>> allFavorites() {
         return ResponseEntity.ok(houseService.listAllFavorites().stream()
                 .map(DtoMapper::toFavorite)
                 .collect(Collectors.toList()));
@@ -171,22 +264,18 @@ public class HouseController {
 
     @PostMapping("/{houseId}/recommend")
     @Operation(summary = "设置推荐状态", description = "管理员标记房源是否为推荐房源")
-    public ResponseEntity<HouseResponse> recommend(@RequestHeader("X-Auth-Token") String token,
-                                                   @PathVariable Long houseId,
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<HouseResponse> recommend(@PathVariable Long houseId,
                                                    @RequestParam(defaultValue = "true") boolean value) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
         House updated = houseService.markRecommended(houseId, value);
         return ResponseEntity.ok(DtoMapper.toHouse(updated));
     }
 
     @PostMapping("/{houseId}/status")
     @Operation(summary = "更新房源状态", description = "管理员更新房源的上下架状态")
-    public ResponseEntity<HouseResponse> updateStatus(@RequestHeader("X-Auth-Token") String token,
-                                                      @PathVariable Long houseId,
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<HouseResponse> updateStatus(@PathVariable Long houseId,
                                                       @RequestParam HouseStatus status) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
         return ResponseEntity.ok(DtoMapper.toHouse(houseService.updateStatus(houseId, status)));
     }
 
@@ -200,6 +289,8 @@ public class HouseController {
         house.setLayout(request.layout());
         house.setOrientation(request.orientation());
         house.setAddress(request.address());
+        house.setLatitude(request.latitude());
+        house.setLongitude(request.longitude());
         house.setAvailableFrom(request.availableFrom());
         if (request.amenities() != null) {
             house.setAmenities(request.amenities());
@@ -218,11 +309,6 @@ public class HouseController {
         return house;
     }
 
-    private void ensureRole(User user, UserRole role) {
-        if (user.getRole() != role) {
-            throw new com.example.housebackend.exception.AccessDeniedException("无权访问该资源");
-        }
-    }
 
     private List<HouseMedia> toHouseMediaEntities(List<HouseMediaRequest> mediaRequests) {
         if (mediaRequests == null) {
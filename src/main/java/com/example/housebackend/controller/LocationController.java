@@ -1,8 +1,8 @@
 package com.example.housebackend.controller;
 
+import com.example.housebackend.config.RequireRole;
 import com.example.housebackend.domain.location.Region;
 import com.example.housebackend.domain.location.SubwayLine;
-import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserRole;
 import com.example.housebackend.dto.DtoMapper;
 import com.example.housebackend.dto.location.RegionRequest;
@@ -11,7 +11,6 @@ import com.example.housebackend.dto.location.SubwayRequest;
 import com.example.housebackend.dto.location.SubwayResponse;
 import com.example.housebackend.exception.ResourceNotFoundException;
 import com.example.housebackend.repository.RegionRepository;
-import com.example.housebackend.service.AuthService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import com.example.housebackend.service.LocationService;
@@ -25,7 +24,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -36,7 +34,6 @@ import org.springframework.web.bind.annotation.RestController;
 public class LocationController {
 
     private final LocationService locationService;
-    private final AuthService authService;
     private final RegionRepository regionRepository;
 
     @GetMapping("/regions")
@@ -50,10 +47,8 @@ public class LocationController {
 
     @PostMapping("/regions")
     @Operation(summary = "创建地区", description = "管理员新增一个房源地区")
-    public ResponseEntity<RegionResponse> createRegion(@RequestHeader("X-Auth-Token") String token,
-                                                       @RequestBody RegionRequest request) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<RegionResponse> createRegion(@RequestBody RegionRequest request) {
         Region region = new Region();
         region.setName(request.name());
         region.setDescription(request.description());
@@ -62,11 +57,9 @@ public class LocationController {
 
     @PutMapping("/regions/{regionId}")
     @Operation(summary = "更新地区", description = "管理员根据 ID 修改地区信息")
-    public ResponseEntity<RegionResponse> updateRegion(@RequestHeader("X-Auth-Token") String token,
-                                                       @PathVariable Long regionId,
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<RegionResponse> updateRegion(@PathVariable Long regionId,
                                                        @RequestBody RegionRequest request) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
         Region region = new Region();
         region.setName(request.name());
         region.setDescription(request.description());
@@ -75,10 +68,8 @@ public class LocationController {
 
     @DeleteMapping("/regions/{regionId}")
     @Operation(summary = "删除地区", description = "管理员根据 ID 删除地区")
-    public ResponseEntity<Void> deleteRegion(@RequestHeader("X-Auth-Token") String token,
-                                             @PathVariable Long regionId) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<Void> deleteRegion(@PathVariable Long regionId) {
         locationService.deleteRegion(regionId);
         return ResponseEntity.noContent().build();
     }
@@ -94,10 +85,8 @@ public class LocationController {
 
     @PostMapping("/subways")
     @Operation(summary = "创建地铁线路", description = "管理员新增地铁线路与车站")
-    public ResponseEntity<SubwayResponse> createSubway(@RequestHeader("X-Auth-Token") String token,
-                                                       @RequestBody SubwayRequest request) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<SubwayResponse> createSubway(@RequestBody SubwayRequest request) {
         SubwayLine subwayLine = new SubwayLine();
         subwayLine.setLineName(request.lineName());
         subwayLine.setStationName(request.stationName());
@@ -111,11 +100,9 @@ public class LocationController {
 
     @PutMapping("/subways/{subwayId}")
     @Operation(summary = "更新地铁线路", description = "管理员根据 ID 修改地铁线路与车站信息")
-    public ResponseEntity<SubwayResponse> updateSubway(@RequestHeader("X-Auth-Token") String token,
-                                                       @PathVariable Long subwayId,
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<SubwayResponse> updateSubway(@PathVariable Long subwayId,
                                                        @RequestBody SubwayRequest request) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
         SubwayLine subwayLine = new SubwayLine();
         subwayLine.setLineName(request.lineName());
         subwayLine.setStationName(request.stationName());
@@ -129,17 +116,9 @@ public class LocationController {
 
     @DeleteMapping("/subways/{subwayId}")
     @Operation(summary = "删除地铁线路", description = "管理员根据 ID 删除地铁线路")
-    public ResponseEntity<Void> deleteSubway(@RequestHeader("X-Auth-Token") String token,
-                                             @PathVariable Long subwayId) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<Void> deleteSubway(@PathVariable Long subwayId) {
         locationService.deleteSubway(subwayId);
         return ResponseEntity.noContent().build();
     }
-
-    private void ensureRole(User user, UserRole role) {
-        if (user.getRole() != role) {
-            throw new com.example.housebackend.exception.AccessDeniedException("无权访问该资源");
-        }
-    }
 }
@@ -0,0 +1,79 @@
+package com.example.housebackend.controller;
+
+import com.example.housebackend.config.RequireRole;
+import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.dto.metrics.BookingLockMetrics;
+import com.example.housebackend.dto.metrics.CacheMetrics;
+import com.example.housebackend.dto.metrics.HashingMetrics;
+import com.example.housebackend.dto.metrics.LifecycleMetrics;
+import com.example.housebackend.dto.metrics.SweepMetrics;
+import com.example.housebackend.dto.metrics.WriteBehindMetrics;
+import com.example.housebackend.service.AuthTokenCache;
+import com.example.housebackend.service.AuthTokenSweeper;
+import com.example.housebackend.service.HouseBookingLocks;
+import com.example.housebackend.service.LastLoginWriter;
+import com.example.housebackend.service.OrderLifecycleScheduler;
+import com.example.housebackend.service.PasswordHashingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@Tag(name = "运行指标", description = "提供缓存、后台任务等运行时指标")
+public class MetricsController {
+
+    private final AuthTokenCache authTokenCache;
+    private final PasswordHashingService passwordHashingService;
+    private final LastLoginWriter lastLoginWriter;
+    private final AuthTokenSweeper authTokenSweeper;
+    private final HouseBookingLocks houseBookingLocks;
+    private final OrderLifecycleScheduler orderLifecycleScheduler;
+
+    @GetMapping("/auth-cache")
+    @Operation(summary = "令牌缓存指标", description = "返回令牌缓存的命中、未命中与淘汰次数")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<CacheMetrics> authCache() {
+        return ResponseEntity.ok(authTokenCache.metrics());
+    }
+
+    @GetMapping("/password-hashing")
+    @Operation(summary = "密码哈希指标", description = "返回 BCrypt 线程池占用、拒绝次数与耗时分布")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<HashingMetrics> passwordHashing() {
+        return ResponseEntity.ok(passwordHashingService.metrics());
+    }
+
+    @GetMapping("/last-login")
+    @Operation(summary = "最近登录时间写入指标", description = "返回待写入条数、批次数与失败次数")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<WriteBehindMetrics> lastLogin() {
+        return ResponseEntity.ok(lastLoginWriter.metrics());
+    }
+
+    @GetMapping("/token-sweeper")
+    @Operation(summary = "过期令牌清理指标", description = "返回清理执行次数、每次清理条数与耗时")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<SweepMetrics> tokenSweeper() {
+        return ResponseEntity.ok(authTokenSweeper.metrics());
+    }
+
+    @GetMapping("/booking-locks")
+    @Operation(summary = "房源预订锁指标", description = "返回分段锁数量、争用与超时次数及等待耗时分布")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<BookingLockMetrics> bookingLocks() {
+        return ResponseEntity.ok(houseBookingLocks.metrics());
+    }
+
+    @GetMapping("/order-lifecycle")
+    @Operation(summary = "订单状态流转指标", description = "返回自动生效、完成、过期的订单数量及租约持有情况")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<LifecycleMetrics> orderLifecycle() {
+        return ResponseEntity.ok(orderLifecycleScheduler.metrics());
+    }
+}
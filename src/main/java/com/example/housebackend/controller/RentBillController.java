@@ -0,0 +1,78 @@
+package com.example.housebackend.controller;
+
+import com.example.housebackend.config.CurrentUser;
+import com.example.housebackend.config.RequireRole;
+import com.example.housebackend.domain.auth.AuthPrincipal;
+import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.dto.CursorPage;
+import com.example.housebackend.dto.DtoMapper;
+import com.example.housebackend.dto.bill.BillingRunResponse;
+import com.example.housebackend.dto.bill.RentBillResponse;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.service.RentBillGenerator;
+import com.example.housebackend.service.RentBillService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/bills")
+@RequiredArgsConstructor
+@Tag(name = "租金账单", description = "按月生成租金账单，支持租客与房东游标分页查询")
+public class RentBillController {
+
+    private final RentBillService rentBillService;
+    private final RentBillGenerator rentBillGenerator;
+
+    @GetMapping("/mine")
+    @Operation(summary = "租客账单列表", description = "按生成时间倒序的游标分页，首页不传 after，之后传上一页返回的 nextCursor")
+    @RequireRole(UserRole.USER)
+    public ResponseEntity<CursorPage<RentBillResponse>> myBills(@CurrentUser AuthPrincipal tenant,
+                                                                @RequestParam(required = false) String after,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(rentBillService.listForTenant(tenant.id(), after, limit(size)).map(DtoMapper::toBill));
+    }
+
+    @GetMapping("/landlord")
+    @Operation(summary = "房东账单列表", description = "按生成时间倒序的游标分页，首页不传 after，之后传上一页返回的 nextCursor")
+    @RequireRole(UserRole.LANDLORD)
+    public ResponseEntity<CursorPage<RentBillResponse>> landlordBills(@CurrentUser AuthPrincipal landlord,
+                                                                      @RequestParam(required = false) String after,
+                                                                      @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(rentBillService.listForLandlord(landlord.id(), after, limit(size)).map(DtoMapper::toBill));
+    }
+
+    @PostMapping("/{billId}/paid")
+    @Operation(summary = "标记账单已支付", description = "房东确认收到租金后标记账单为已支付")
+    @RequireRole(UserRole.LANDLORD)
+    public ResponseEntity<RentBillResponse> markPaid(@CurrentUser AuthPrincipal landlord,
+                                                     @PathVariable Long billId) {
+        return ResponseEntity.ok(DtoMapper.toBill(rentBillService.markPaid(landlord.id(), billId)));
+    }
+
+    @PostMapping("/generate")
+    @Operation(summary = "生成月度账单", description = "为指定月份（yyyy-MM，默认当月）生成账单，中断后再次调用会从检查点继续")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<BillingRunResponse> generate(@RequestParam(required = false) String month) {
+        YearMonth billingMonth;
+        try {
+            billingMonth = month == null ? rentBillGenerator.currentMonth() : YearMonth.parse(month);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("账单月份格式应为 yyyy-MM");
+        }
+        return ResponseEntity.ok(rentBillGenerator.generate(billingMonth));
+    }
+
+    private static int limit(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+}
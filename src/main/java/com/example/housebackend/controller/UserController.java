@@ -1,6 +1,9 @@
 package com.example.housebackend.controller;
 
+import com.example.housebackend.config.CurrentUser;
+import com.example.housebackend.config.RequireRole;
 import com.example.housebackend.domain.common.MediaType;
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserMedia;
 import com.example.housebackend.domain.user.UserRole;
@@ -25,7 +28,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -41,16 +43,14 @@ public class UserController {
 
     @GetMapping("/me")
     @Operation(summary = "获取个人资料", description = "当前登录用户查看自己的详细资料")
-    public ResponseEntity<UserProfileResponse> me(@RequestHeader("X-Auth-Token") String token) {
-        User user = authService.requireUser(token);
+    public ResponseEntity<UserProfileResponse> me(@CurrentUser User user) {
         return ResponseEntity.ok(DtoMapper.toProfile(user));
     }
 
     @PutMapping("/me")
     @Operation(summary = "更新个人资料", description = "当前用户更新自己的基础信息")
-    public ResponseEntity<UserProfileResponse> updateProfile(@RequestHeader("X-Auth-Token") String token,
+    public ResponseEntity<UserProfileResponse> updateProfile(@CurrentUser AuthPrincipal user,
                                                              @RequestBody UserProfileUpdateRequest request) {
-        User user = authService.requireUser(token);
         User updated = new User();
         updated.setFullName(request.fullName());
         updated.setAvatarUrl(request.avatarUrl());
@@ -60,34 +60,30 @@ public class UserController {
         updated.setBio(request.bio());
         updated.setIdNumber(request.idNumber());
         updated.replaceMedia(toUserMediaEntities(request.gallery()));
-        User saved = userService.updateProfile(user.getId(), updated);
+        User saved = userService.updateProfile(user.id(), updated);
         return ResponseEntity.ok(DtoMapper.toProfile(saved));
     }
 
     @PostMapping("/me/password")
     @Operation(summary = "修改密码", description = "当前用户修改登录密码")
-    public ResponseEntity<Void> changePassword(@RequestHeader("X-Auth-Token") String token,
+    public ResponseEntity<Void> changePassword(@CurrentUser AuthPrincipal user,
                                                @RequestBody ChangePasswordRequest request) {
-        User user = authService.requireUser(token);
-        userService.changePassword(user.getId(), request.oldPassword(), request.newPassword());
+        userService.changePassword(user.id(), request.oldPassword(), request.newPassword());
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{userId}")
     @Operation(summary = "查看用户资料", description = "登录用户可查看指定账号的公开资料信息")
-    public ResponseEntity<UserProfileResponse> profile(@RequestHeader("X-Auth-Token") String token,
-                                                       @PathVariable Long userId) {
-        authService.requireUser(token);
+    @RequireRole
+    public ResponseEntity<UserProfileResponse> profile(@PathVariable Long userId) {
         User profile = userService.getProfile(userId);
         return ResponseEntity.ok(DtoMapper.toProfile(profile));
     }
 
     @GetMapping
     @Operation(summary = "按角色查询用户", description = "管理员按角色筛选平台用户")
-    public ResponseEntity<List<UserProfileResponse>> listUsers(@RequestHeader("X-Auth-Token") String token,
-                                                               @RequestParam UserRole role) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<List<UserProfileResponse>> listUsers(@RequestParam UserRole role) {
         List<UserProfileResponse> result = userService.listByRole(role).stream()
                 .map(DtoMapper::toProfile)
                 .collect(Collectors.toList());
@@ -96,20 +92,16 @@ public class UserController {
 
     @DeleteMapping("/{userId}")
     @Operation(summary = "删除用户", description = "管理员根据 ID 删除用户")
-    public ResponseEntity<Void> deleteUser(@RequestHeader("X-Auth-Token") String token,
-                                           @PathVariable Long userId) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<Void> deleteUser(@PathVariable Long userId) {
         userService.deleteUser(userId);
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping
     @Operation(summary = "创建用户", description = "管理员后台创建新用户")
-    public ResponseEntity<UserProfileResponse> createUser(@RequestHeader("X-Auth-Token") String token,
-                                                          @RequestBody AuthRequest request) {
-        User admin = authService.requireUser(token);
-        ensureRole(admin, UserRole.ADMIN);
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<UserProfileResponse> createUser(@RequestBody AuthRequest request) {
         User created = authService.register(
                 request.username(),
                 request.password(),
@@ -119,11 +111,6 @@ public class UserController {
         return ResponseEntity.ok(DtoMapper.toProfile(created));
     }
 
-    private void ensureRole(User user, UserRole role) {
-        if (user.getRole() != role) {
-            throw new com.example.housebackend.exception.AccessDeniedException("无权访问该资源");
-        }
-    }
 
     private List<UserMedia> toUserMediaEntities(List<UserMediaRequest> mediaRequests) {
         if (mediaRequests == null) {
@@ -0,0 +1,29 @@
+package com.example.housebackend.domain.auth;
+
+import com.example.housebackend.domain.user.User;
+import com.example.housebackend.domain.user.UserRole;
+
+public record AuthPrincipal(Long id,
+                            String username,
+                            String fullName,
+                            String avatarUrl,
+                            UserRole role) {
+
+    public static AuthPrincipal of(User user) {
+        return new AuthPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getFullName(),
+                user.getAvatarUrl(),
+                user.getRole());
+    }
+
+    public boolean hasRole(UserRole... roles) {
+        for (UserRole candidate : roles) {
+            if (role == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -5,6 +5,7 @@ import com.example.housebackend.domain.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,7 +16,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "auth_tokens")
+@Table(name = "auth_tokens", indexes = @Index(name = "idx_auth_tokens_expires_at", columnList = "expiresAt"))
 public class AuthToken extends BaseEntity {
 
     @Column(nullable = false, unique = true, length = 128)
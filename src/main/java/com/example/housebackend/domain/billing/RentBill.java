@@ -0,0 +1,64 @@
+package com.example.housebackend.domain.billing;
+
+import com.example.housebackend.domain.common.BaseEntity;
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.order.RentalOrder;
+import com.example.housebackend.domain.user.User;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "rent_bills",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rent_bills_order_month", columnNames = {"order_id", "billing_month"}),
+        indexes = {
+                @Index(name = "idx_rent_bills_tenant_created", columnList = "tenant_id, createdAt, id"),
+                @Index(name = "idx_rent_bills_landlord_created", columnList = "landlord_id, createdAt, id")
+        })
+public class RentBill extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private RentalOrder order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "house_id", nullable = false)
+    private House house;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false)
+    private User tenant;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "landlord_id", nullable = false)
+    private User landlord;
+
+    @Column(name = "billing_month", nullable = false, length = 7)
+    private String billingMonth;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RentBillStatus status = RentBillStatus.UNPAID;
+
+    private Instant paidAt;
+}
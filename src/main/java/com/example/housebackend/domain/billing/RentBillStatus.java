@@ -0,0 +1,6 @@
+package com.example.housebackend.domain.billing;
+
+public enum RentBillStatus {
+    UNPAID,
+    PAID
+}
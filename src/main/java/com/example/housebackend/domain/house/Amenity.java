@@ -0,0 +1,22 @@
+package com.example.housebackend.domain.house;
+
+import com.example.housebackend.domain.common.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "amenities")
+public class Amenity extends BaseEntity {
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String name;
+
+    // 在 House.amenityMask 中占用的位
+    @Column(nullable = false, unique = true)
+    private int bit;
+}
@@ -0,0 +1,35 @@
+package com.example.housebackend.domain.house;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 配套名称种类很少，读取时复用同一个字符串实例，避免列表接口每行各自分配
+@Converter
+public class AmenityNameConverter implements AttributeConverter<String, String> {
+
+    private static final int MAX_NAMES = 1024;
+    private static final Map<String, String> NAMES = new ConcurrentHashMap<>();
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return attribute;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        String interned = NAMES.get(dbData);
+        if (interned != null) {
+            return interned;
+        }
+        if (NAMES.size() >= MAX_NAMES) {
+            return dbData;
+        }
+        String previous = NAMES.putIfAbsent(dbData, dbData);
+        return previous != null ? previous : dbData;
+    }
+}
@@ -6,11 +6,13 @@ import com.example.housebackend.domain.location.SubwayLine;
 import com.example.housebackend.domain.user.User;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -23,11 +25,21 @@ import java.util.List;
 import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "houses")
+@Table(name = "houses",
+        indexes = {
+                @Index(name = "idx_houses_created_at_id", columnList = "createdAt, id"),
+                @Index(name = "idx_houses_status_price", columnList = "status, rentPrice"),
+                @Index(name = "idx_houses_region_status_price", columnList = "region_id, status, rentPrice"),
+                @Index(name = "idx_houses_status_layout_price", columnList = "status, layout, rentPrice"),
+                @Index(name = "idx_houses_status_area", columnList = "status, area"),
+                @Index(name = "idx_houses_geohash_status", columnList = "geohash, status")
+        })
 public class House extends BaseEntity {
 
     @Column(nullable = false, length = 128)
@@ -53,6 +65,14 @@ public class House extends BaseEntity {
     @Column(length = 128)
     private String address;
 
+    private Double latitude;
+
+    private Double longitude;
+
+    // 由经纬度计算，附近房源查询按前缀走索引
+    @Column(length = 12)
+    private String geohash;
+
     private LocalDate availableFrom;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -72,11 +92,19 @@ public class House extends BaseEntity {
     private boolean recommended;
 
     @OneToMany(mappedBy = "house", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<HouseMedia> media = new ArrayList<>();
 
     @ElementCollection
+    @BatchSize(size = 100)
+    @Convert(converter = AmenityNameConverter.class)
     private Set<String> amenities = new HashSet<>();
 
+    // 由 AmenityDictionary 按 amenities 计算，每种配套占一位
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long amenityMask;
+
     public void replaceMedia(List<HouseMedia> items) {
         media.clear();
         if (items == null) {
@@ -8,19 +8,28 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "rental_orders")
+@Table(name = "rental_orders",
+        indexes = {
+                @Index(name = "idx_rental_orders_house_status_end", columnList = "house_id, status, endDate, startDate"),
+                @Index(name = "idx_rental_orders_status_start", columnList = "status, startDate"),
+                @Index(name = "idx_rental_orders_status_end", columnList = "status, endDate"),
+                @Index(name = "idx_rental_orders_created", columnList = "createdAt")
+        })
 public class RentalOrder extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -75,4 +84,9 @@ public class RentalOrder extends BaseEntity {
 
     @Column(length = 512)
     private String terminationFeedback;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,31 @@
+package com.example.housebackend.domain.scheduling;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "batch_checkpoints")
+public class BatchCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String jobName;
+
+    @Column(nullable = false)
+    private long lastId;
+
+    @Column(nullable = false)
+    private long processed;
+
+    private Instant completedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
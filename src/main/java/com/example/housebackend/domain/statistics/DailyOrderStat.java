@@ -0,0 +1,37 @@
+package com.example.housebackend.domain.statistics;
+
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "stat_daily_orders",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stat_daily_orders", columnNames = {"stat_date", "status"}))
+public class DailyOrderStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate statDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private RentalOrderStatus status;
+
+    @Column(nullable = false)
+    private long total;
+}
@@ -0,0 +1,42 @@
+package com.example.housebackend.domain.statistics;
+
+import com.example.housebackend.domain.house.HouseStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "stat_house_counts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stat_house_counts",
+                columnNames = {"region_id", "subway_line_id", "status"}))
+public class HouseCountStat {
+
+    public static final long NONE = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private long regionId;
+
+    @Column(nullable = false)
+    private long subwayLineId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HouseStatus status;
+
+    @Column(nullable = false)
+    private long total;
+}
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
@@ -60,6 +61,10 @@ public class User extends BaseEntity {
 
     private Instant lastLoginAt;
 
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion;
+
     @ElementCollection
     private Set<String> tags = new HashSet<>();
 
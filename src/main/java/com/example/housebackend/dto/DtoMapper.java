@@ -1,6 +1,7 @@
 package com.example.housebackend.dto;
 
 import com.example.housebackend.domain.announcement.SystemAnnouncement;
+import com.example.housebackend.domain.billing.RentBill;
 import com.example.housebackend.domain.chat.ChatMessage;
 import com.example.housebackend.domain.certification.LandlordCertification;
 import com.example.housebackend.domain.contact.ContactRecord;
@@ -14,6 +15,7 @@ import com.example.housebackend.domain.support.SupportTicket;
 import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserMedia;
 import com.example.housebackend.dto.announcement.AnnouncementResponse;
+import com.example.housebackend.dto.bill.RentBillResponse;
 import com.example.housebackend.dto.certification.CertificationResponse;
 import com.example.housebackend.dto.chat.ChatMessageResponse;
 import com.example.housebackend.dto.contact.ContactResponse;
@@ -95,6 +97,8 @@ public final class DtoMapper {
                 house.getLayout(),
                 house.getOrientation(),
                 house.getAddress(),
+                house.getLatitude(),
+                house.getLongitude(),
                 house.getAvailableFrom(),
                 owner != null ? owner.getId() : null,
                 owner != null ? owner.getFullName() : null,
@@ -134,6 +138,19 @@ public final class DtoMapper {
                 terminationResolver != null ? terminationResolver.getFullName() : null);
     }
 
+    public static RentBillResponse toBill(RentBill bill) {
+        return new RentBillResponse(
+                bill.getId(),
+                bill.getOrder().getId(),
+                bill.getHouse().getId(),
+                bill.getBillingMonth(),
+                bill.getAmount(),
+                bill.getDueDate(),
+                bill.getStatus(),
+                bill.getPaidAt(),
+                bill.getCreatedAt());
+    }
+
     public static ContactResponse toContact(ContactRecord record) {
         return new ContactResponse(
                 record.getId(),
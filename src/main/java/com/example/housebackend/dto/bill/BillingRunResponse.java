@@ -0,0 +1,10 @@
+package com.example.housebackend.dto.bill;
+
+public record BillingRunResponse(String billingMonth,
+                                 boolean started,
+                                 boolean completed,
+                                 long generated,
+                                 long processedOrders,
+                                 long lastOrderId,
+                                 long durationMillis) {
+}
@@ -0,0 +1,17 @@
+package com.example.housebackend.dto.bill;
+
+import com.example.housebackend.domain.billing.RentBillStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record RentBillResponse(Long id,
+                               Long orderId,
+                               Long houseId,
+                               String billingMonth,
+                               BigDecimal amount,
+                               LocalDate dueDate,
+                               RentBillStatus status,
+                               Instant paidAt,
+                               Instant createdAt) {
+}
@@ -0,0 +1,6 @@
+package com.example.housebackend.dto.house;
+
+import java.time.LocalDate;
+
+public record BookedRange(LocalDate startDate, LocalDate endDate) {
+}
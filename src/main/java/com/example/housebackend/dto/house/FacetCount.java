@@ -0,0 +1,4 @@
+package com.example.housebackend.dto.house;
+
+public record FacetCount(String value, String label, long count) {
+}
@@ -0,0 +1,10 @@
+package com.example.housebackend.dto.house;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record HouseAvailabilityResponse(Long houseId,
+                                        LocalDate from,
+                                        LocalDate to,
+                                        List<BookedRange> booked) {
+}
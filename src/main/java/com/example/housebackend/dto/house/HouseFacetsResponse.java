@@ -0,0 +1,15 @@
+package com.example.housebackend.dto.house;
+
+import java.util.List;
+
+public record HouseFacetsResponse(long total,
+                                  List<FacetCount> regions,
+                                  List<FacetCount> subwayLines,
+                                  List<FacetCount> layouts,
+                                  List<FacetCount> priceRanges,
+                                  List<FacetCount> amenities) {
+
+    public static HouseFacetsResponse empty() {
+        return new HouseFacetsResponse(0, List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+}
@@ -13,6 +13,8 @@ public record HouseRequest(String title,
                            String layout,
                            String orientation,
                            String address,
+                           Double latitude,
+                           Double longitude,
                            LocalDate availableFrom,
                            Long regionId,
                            Long subwayLineId,
@@ -15,6 +15,8 @@ public record HouseResponse(Long id,
                             String layout,
                             String orientation,
                             String address,
+                            Double latitude,
+                            Double longitude,
                             LocalDate availableFrom,
                             Long ownerId,
                             String ownerName,
@@ -0,0 +1,24 @@
+package com.example.housebackend.dto.house;
+
+import com.example.housebackend.domain.house.HouseStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+public record HouseSearchCriteria(Long regionId,
+                                  Long subwayId,
+                                  HouseStatus status,
+                                  BigDecimal minPrice,
+                                  BigDecimal maxPrice,
+                                  Double minArea,
+                                  Double maxArea,
+                                  String layout,
+                                  Set<String> amenities,
+                                  LocalDate moveInBy,
+                                  LocalDate availableFrom,
+                                  LocalDate availableTo) {
+
+    public static HouseSearchCriteria none() {
+        return new HouseSearchCriteria(null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.housebackend.dto.house;
+
+public record NearbyHouseResponse(HouseResponse house, double distanceMeters) {
+}
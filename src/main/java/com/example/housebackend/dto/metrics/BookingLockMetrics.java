@@ -0,0 +1,9 @@
+package com.example.housebackend.dto.metrics;
+
+public record BookingLockMetrics(int stripes,
+                                 int held,
+                                 long acquisitions,
+                                 long contended,
+                                 long timeouts,
+                                 HistogramSnapshot waitTime) {
+}
@@ -0,0 +1,10 @@
+package com.example.housebackend.dto.metrics;
+
+public record CacheMetrics(long size,
+                           long maxSize,
+                           long hits,
+                           long misses,
+                           long evictions,
+                           long invalidations,
+                           double hitRate) {
+}
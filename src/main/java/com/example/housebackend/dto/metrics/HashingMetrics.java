@@ -0,0 +1,11 @@
+package com.example.housebackend.dto.metrics;
+
+public record HashingMetrics(int strength,
+                             int poolSize,
+                             int activeThreads,
+                             int queueDepth,
+                             int queueCapacity,
+                             long rejected,
+                             HistogramSnapshot encode,
+                             HistogramSnapshot matches) {
+}
@@ -0,0 +1,9 @@
+package com.example.housebackend.dto.metrics;
+
+import java.util.Map;
+
+public record HistogramSnapshot(long count,
+                                double meanMillis,
+                                long maxMillis,
+                                Map<String, Long> buckets) {
+}
@@ -0,0 +1,14 @@
+package com.example.housebackend.dto.metrics;
+
+import java.time.Instant;
+
+public record LifecycleMetrics(long runs,
+                               long skipped,
+                               long activated,
+                               long completed,
+                               long expired,
+                               long lastDurationMillis,
+                               Instant lastRunAt,
+                               long failures,
+                               String leaseOwner) {
+}
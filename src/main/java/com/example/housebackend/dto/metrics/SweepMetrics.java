@@ -0,0 +1,11 @@
+package com.example.housebackend.dto.metrics;
+
+import java.time.Instant;
+
+public record SweepMetrics(long runs,
+                           long totalPurged,
+                           long lastPurged,
+                           long lastDurationMillis,
+                           Instant lastRunAt,
+                           long failures) {
+}
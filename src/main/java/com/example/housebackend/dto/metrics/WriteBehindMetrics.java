@@ -0,0 +1,8 @@
+package com.example.housebackend.dto.metrics;
+
+public record WriteBehindMetrics(long pending,
+                                 long recorded,
+                                 long flushedRows,
+                                 long batches,
+                                 long failures) {
+}
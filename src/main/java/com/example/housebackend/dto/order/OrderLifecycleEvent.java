@@ -0,0 +1,11 @@
+package com.example.housebackend.dto.order;
+
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import java.time.Instant;
+
+public record OrderLifecycleEvent(Long orderId,
+                                  Long houseId,
+                                  RentalOrderStatus fromStatus,
+                                  RentalOrderStatus toStatus,
+                                  Instant at) {
+}
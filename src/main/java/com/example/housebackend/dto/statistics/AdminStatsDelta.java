@@ -0,0 +1,7 @@
+package com.example.housebackend.dto.statistics;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record AdminStatsDelta(Instant at, Map<String, Long> changes) {
+}
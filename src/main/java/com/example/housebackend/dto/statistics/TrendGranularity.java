@@ -0,0 +1,7 @@
+package com.example.housebackend.dto.statistics;
+
+public enum TrendGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
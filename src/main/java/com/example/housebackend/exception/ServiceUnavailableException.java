@@ -0,0 +1,8 @@
+package com.example.housebackend.exception;
+
+public class ServiceUnavailableException extends BusinessException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
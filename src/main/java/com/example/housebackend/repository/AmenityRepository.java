@@ -0,0 +1,11 @@
+package com.example.housebackend.repository;
+
+import com.example.housebackend.domain.house.Amenity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface AmenityRepository extends JpaRepository<Amenity, Long> {
+
+    @Query("select max(a.bit) from Amenity a")
+    Integer findMaxBit();
+}
@@ -1,12 +1,39 @@
 package com.example.housebackend.repository;
 
 import com.example.housebackend.domain.auth.AuthToken;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AuthTokenRepository extends JpaRepository<AuthToken, Long> {
 
     @EntityGraph(attributePaths = "user")
     Optional<AuthToken> findByTokenAndRevokedFalse(String token);
+
+    @Query("select t from AuthToken t where t.revoked = true and t.expiresAt > :now and t.token like :prefix")
+    List<AuthToken> findRevokedByPrefix(@Param("prefix") String prefix, @Param("now") Instant now);
+
+    @Query("""
+            select t from AuthToken t
+            where t.revoked = true and t.expiresAt > :now and t.token like :prefix and t.createdAt >= :since
+            """)
+    List<AuthToken> findRevokedByPrefixSince(@Param("prefix") String prefix, @Param("now") Instant now,
+                                             @Param("since") Instant since);
+
+    @Query("select t.id from AuthToken t where t.expiresAt < :cutoff order by t.expiresAt")
+    List<Long> findExpiredIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("delete from AuthToken t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("delete from AuthToken t where t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,12 @@
+package com.example.housebackend.repository;
+
+import java.time.LocalDate;
+
+public interface BookingView {
+
+    Long getId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
@@ -0,0 +1,11 @@
+package com.example.housebackend.repository;
+
+import com.example.housebackend.domain.statistics.DailyOrderStat;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DailyOrderStatRepository extends JpaRepository<DailyOrderStat, Long> {
+
+    List<DailyOrderStat> findByStatDateBetween(LocalDate from, LocalDate to);
+}
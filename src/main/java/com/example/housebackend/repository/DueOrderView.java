@@ -0,0 +1,16 @@
+package com.example.housebackend.repository;
+
+import java.time.Instant;
+
+public interface DueOrderView {
+
+    Long getId();
+
+    Instant getCreatedAt();
+
+    Long getHouseId();
+
+    Long getTenantId();
+
+    Long getLandlordId();
+}
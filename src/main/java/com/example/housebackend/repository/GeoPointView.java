@@ -0,0 +1,10 @@
+package com.example.housebackend.repository;
+
+public interface GeoPointView {
+
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
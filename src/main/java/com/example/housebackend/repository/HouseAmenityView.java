@@ -0,0 +1,8 @@
+package com.example.housebackend.repository;
+
+public interface HouseAmenityView {
+
+    Long getHouseId();
+
+    String getAmenity();
+}
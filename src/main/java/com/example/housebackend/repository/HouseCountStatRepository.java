@@ -0,0 +1,7 @@
+package com.example.housebackend.repository;
+
+import com.example.housebackend.domain.statistics.HouseCountStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface HouseCountStatRepository extends JpaRepository<HouseCountStat, Long> {
+}
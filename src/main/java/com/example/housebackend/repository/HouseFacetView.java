@@ -0,0 +1,27 @@
+package com.example.housebackend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface HouseFacetView {
+
+    Long getId();
+
+    Long getRegionId();
+
+    String getRegionName();
+
+    Long getSubwayLineId();
+
+    String getSubwayLineName();
+
+    String getLayout();
+
+    BigDecimal getRentPrice();
+
+    Double getArea();
+
+    LocalDate getAvailableFrom();
+
+    long getAmenityMask();
+}
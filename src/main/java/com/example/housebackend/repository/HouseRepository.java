@@ -2,27 +2,108 @@ package com.example.housebackend.repository;
 
 import com.example.housebackend.domain.house.House;
 import com.example.housebackend.domain.house.HouseStatus;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-public interface HouseRepository extends JpaRepository<House, Long> {
+public interface HouseRepository extends JpaRepository<House, Long>, JpaSpecificationExecutor<House> {
 
+    @EntityGraph(attributePaths = {"owner", "region", "subwayLine", "subwayLine.region"})
     Page<House> findByOwnerId(Long ownerId, Pageable pageable);
 
     Page<House> findByStatus(HouseStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"owner", "region", "subwayLine", "subwayLine.region"})
     List<House> findTop10ByRecommendedTrueOrderByUpdatedAtDesc();
 
+    @EntityGraph(attributePaths = {"owner", "region", "subwayLine", "subwayLine.region"})
     List<House> findTop10ByOrderByCreatedAtDesc();
 
-    @Query("select h from House h where (:regionId is null or h.region.id = :regionId) "
-            + "and (:subwayId is null or h.subwayLine.id = :subwayId) "
-            + "and (:status is null or h.status = :status)")
-    Page<House> search(@org.springframework.data.repository.query.Param("regionId") Long regionId,
-                       @org.springframework.data.repository.query.Param("subwayId") Long subwayId,
-                       @org.springframework.data.repository.query.Param("status") HouseStatus status,
-                       Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"owner", "region", "subwayLine", "subwayLine.region"})
+    Page<House> findAll(Specification<House> specification, Pageable pageable);
+
+    // 预订写入前锁住房源行，跨节点的并发确认在此串行
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from House h where h.id = :id")
+    Optional<House> lockById(@org.springframework.data.repository.query.Param("id") Long id);
+
+    @Query("select h.id from House h where h.status = :status")
+    List<Long> findIdsByStatus(@org.springframework.data.repository.query.Param("status") HouseStatus status);
+
+    @EntityGraph(attributePaths = {"owner", "region", "subwayLine", "subwayLine.region"})
+    List<House> findByIdIn(Collection<Long> ids);
+
+    @Query("select h.id from House h where h.id in :ids "
+            + "and not exists (select 1 from RentalOrder r where r.house = h "
+            + "and r.status in (com.example.housebackend.domain.order.RentalOrderStatus.CONFIRMED, "
+            + "com.example.housebackend.domain.order.RentalOrderStatus.ACTIVE) "
+            + "and r.endDate >= :availableFrom and r.startDate <= :availableTo)")
+    List<Long> findAvailableIds(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids,
+                                @org.springframework.data.repository.query.Param("availableFrom") LocalDate availableFrom,
+                                @org.springframework.data.repository.query.Param("availableTo") LocalDate availableTo);
+
+    @Query("""
+            select h.id from House h
+            where h.amenityMask = 0 and h.id > :after and h.amenities is not empty
+            order by h.id
+            """)
+    List<Long> findIdsMissingAmenityMask(@org.springframework.data.repository.query.Param("after") Long after,
+                                         Pageable pageable);
+
+    @Query("select h.id as houseId, a as amenity from House h join h.amenities a where h.id in :ids")
+    List<HouseAmenityView> findAmenities(@org.springframework.data.repository.query.Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select h.id from House h join h.amenities a
+            where a in :amenities
+            group by h.id
+            having count(a) = :count
+            """)
+    List<Long> findIdsHavingAmenities(@org.springframework.data.repository.query.Param("amenities") Collection<String> amenities,
+                                      @org.springframework.data.repository.query.Param("count") long count);
+
+    @Modifying
+    @Query("update House h set h.amenityMask = :mask where h.id = :id")
+    int updateAmenityMask(@org.springframework.data.repository.query.Param("id") Long id,
+                          @org.springframework.data.repository.query.Param("mask") long mask);
+
+    @Query("""
+            select h.id as id, r.id as regionId, r.name as regionName, s.id as subwayLineId,
+                   s.lineName as subwayLineName, h.layout as layout, h.rentPrice as rentPrice, h.area as area,
+                   h.availableFrom as availableFrom, h.amenityMask as amenityMask
+            from House h
+            left join h.region r
+            left join h.subwayLine s
+            where h.status = :status and h.id > :after
+            order by h.id
+            """)
+    List<HouseFacetView> findFacetRows(@org.springframework.data.repository.query.Param("status") HouseStatus status,
+                                       @org.springframework.data.repository.query.Param("after") Long after,
+                                       Pageable pageable);
+
+    @Query("""
+            select h.id as id, h.title as title, h.description as description, h.address as address,
+                   r.id as regionId, s.id as subwayLineId, h.status as status, h.rentPrice as rentPrice,
+                   h.area as area, h.layout as layout, h.availableFrom as availableFrom,
+                   h.amenityMask as amenityMask
+            from House h
+            left join h.region r
+            left join h.subwayLine s
+            where h.id > :after
+            order by h.id
+            """)
+    List<HouseTextView> findTextRows(@org.springframework.data.repository.query.Param("after") Long after,
+                                     Pageable pageable);
 }
@@ -0,0 +1,97 @@
+package com.example.housebackend.repository;
+
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.order.RentalOrder;
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+// 只为实际传入的条件生成谓词，避免 ":param is null or ..." 让优化器放弃索引
+public final class HouseSpecifications {
+
+    private HouseSpecifications() {
+    }
+
+    public static Specification<House> matching(HouseSearchCriteria criteria, long amenityMask) {
+        return matching(criteria, amenityMask, List.of());
+    }
+
+    // amenityMask 为 0 表示不按配套过滤；unindexedAmenities 为没有分到位的配套，逐个按集合成员判断
+    public static Specification<House> matching(HouseSearchCriteria criteria, long amenityMask,
+                                                Collection<String> unindexedAmenities) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.regionId() != null) {
+                predicates.add(cb.equal(root.get("region").get("id"), criteria.regionId()));
+            }
+            if (criteria.subwayId() != null) {
+                predicates.add(cb.equal(root.get("subwayLine").get("id"), criteria.subwayId()));
+            }
+            if (criteria.status() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.status()));
+            }
+            if (criteria.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("rentPrice"), criteria.minPrice()));
+            }
+            if (criteria.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("rentPrice"), criteria.maxPrice()));
+            }
+            if (criteria.minArea() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("area"), criteria.minArea()));
+            }
+            if (criteria.maxArea() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("area"), criteria.maxArea()));
+            }
+            if (StringUtils.hasText(criteria.layout())) {
+                predicates.add(cb.equal(root.get("layout"), criteria.layout().trim()));
+            }
+            if (amenityMask != 0) {
+                predicates.add(cb.equal(
+                        cb.function("bitand", Long.class, root.get("amenityMask"), cb.literal(amenityMask)),
+                        amenityMask));
+            }
+            for (String amenity : unindexedAmenities) {
+                predicates.add(cb.isMember(amenity, root.<Collection<String>>get("amenities")));
+            }
+            if (criteria.moveInBy() != null) {
+                predicates.add(cb.or(
+                        cb.isNull(root.get("availableFrom")),
+                        cb.lessThanOrEqualTo(root.get("availableFrom"), criteria.moveInBy())));
+            }
+            if (criteria.availableFrom() != null && criteria.availableTo() != null) {
+                Subquery<Integer> booked = query.subquery(Integer.class);
+                Root<RentalOrder> order = booked.from(RentalOrder.class);
+                booked.select(cb.literal(1)).where(
+                        cb.equal(order.get("house"), root),
+                        order.get("status").in(RentalOrderStatus.CONFIRMED, RentalOrderStatus.ACTIVE),
+                        cb.greaterThanOrEqualTo(order.get("endDate"), criteria.availableFrom()),
+                        cb.lessThanOrEqualTo(order.get("startDate"), criteria.availableTo()));
+                predicates.add(cb.not(cb.exists(booked)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<House> createdBefore(Instant createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    // geohash 前缀只用于命中索引，经纬度区间做精确裁剪
+    public static Specification<House> withinBox(double minLat, double maxLat, double minLng, double maxLng,
+                                                 Collection<String> cells) {
+        return (root, query, cb) -> cb.and(
+                cb.or(cells.stream().map(cell -> cb.like(root.get("geohash"), cell + "%")).toArray(Predicate[]::new)),
+                cb.between(root.get("latitude"), minLat, maxLat),
+                cb.between(root.get("longitude"), minLng, maxLng));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.housebackend.repository;
+
+import com.example.housebackend.domain.house.HouseStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface HouseTextView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getAddress();
+
+    Long getRegionId();
+
+    Long getSubwayLineId();
+
+    HouseStatus getStatus();
+
+    BigDecimal getRentPrice();
+
+    Double getArea();
+
+    String getLayout();
+
+    LocalDate getAvailableFrom();
+
+    long getAmenityMask();
+}
@@ -0,0 +1,40 @@
+package com.example.housebackend.repository;
+
+import com.example.housebackend.domain.billing.RentBill;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RentBillRepository extends JpaRepository<RentBill, Long> {
+
+    @Query("select b from RentBill b where b.tenant.id = :tenantId order by b.createdAt desc, b.id desc")
+    List<RentBill> findTenantFirst(@Param("tenantId") Long tenantId, Pageable pageable);
+
+    @Query("""
+            select b from RentBill b
+            where b.tenant.id = :tenantId
+              and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id))
+            order by b.createdAt desc, b.id desc
+            """)
+    List<RentBill> findTenantAfter(@Param("tenantId") Long tenantId,
+                                   @Param("createdAt") Instant createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    @Query("select b from RentBill b where b.landlord.id = :landlordId order by b.createdAt desc, b.id desc")
+    List<RentBill> findLandlordFirst(@Param("landlordId") Long landlordId, Pageable pageable);
+
+    @Query("""
+            select b from RentBill b
+            where b.landlord.id = :landlordId
+              and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id))
+            order by b.createdAt desc, b.id desc
+            """)
+    List<RentBill> findLandlordAfter(@Param("landlordId") Long landlordId,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+}
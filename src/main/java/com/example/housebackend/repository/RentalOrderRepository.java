@@ -2,29 +2,51 @@ package com.example.housebackend.repository;
 
 import com.example.housebackend.domain.order.RentalOrder;
 import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.dto.order.RentalOrderResponse;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface RentalOrderRepository extends JpaRepository<RentalOrder, Long> {
 
-    Page<RentalOrder> findByTenantId(Long tenantId, Pageable pageable);
+    // 列表接口直接投影为 RentalOrderResponse，各查询只在其后追加 where 条件
+    String RESPONSE_SELECT = """
+            select new com.example.housebackend.dto.order.RentalOrderResponse(
+                r.id, h.id, h.title, t.fullName, l.fullName, r.startDate, r.endDate, r.monthlyRent, r.deposit,
+                r.status, r.contractUrl, r.terminationStatus, r.terminationReason, r.terminationFeedback,
+                r.terminationRequestedAt, r.terminationResolvedAt, requester.fullName, resolver.fullName)
+            from RentalOrder r
+            join r.house h
+            join r.tenant t
+            join r.landlord l
+            left join r.terminationRequester requester
+            left join r.terminationResolver resolver
+            """;
+
+    @Query(value = RESPONSE_SELECT + "where t.id = :tenantId",
+            countQuery = "select count(r) from RentalOrder r where r.tenant.id = :tenantId")
+    Page<RentalOrderResponse> findResponsesByTenantId(@Param("tenantId") Long tenantId, Pageable pageable);
 
-    Page<RentalOrder> findByLandlordId(Long landlordId, Pageable pageable);
+    @Query(value = RESPONSE_SELECT + "where l.id = :landlordId",
+            countQuery = "select count(r) from RentalOrder r where r.landlord.id = :landlordId")
+    Page<RentalOrderResponse> findResponsesByLandlordId(@Param("landlordId") Long landlordId, Pageable pageable);
+
+    @Query(value = RESPONSE_SELECT,
+            countQuery = "select count(r) from RentalOrder r")
+    Page<RentalOrderResponse> findAllResponses(Pageable pageable);
 
     @Query("select r from RentalOrder r where r.house.owner.id = :ownerId")
     Page<RentalOrder> findByHouseOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
     long countByStatus(RentalOrderStatus status);
 
-    @Query("select count(r) from RentalOrder r where r.createdAt between :start and :end")
-    long countByCreatedAtBetween(@Param("start") Instant start, @Param("end") Instant end);
-
     List<RentalOrder> findTop10ByStatusOrderByUpdatedAtDesc(RentalOrderStatus status);
 
     boolean existsByHouseId(Long houseId);
@@ -36,9 +58,69 @@ public interface RentalOrderRepository extends JpaRepository<RentalOrder, Long>
               and r.status in :statuses
               and r.startDate <= :endDate
               and r.endDate >= :startDate
+              and (:excludeOrderId is null or r.id <> :excludeOrderId)
             """)
     boolean hasOverlappingOrders(@Param("houseId") Long houseId,
                                  @Param("startDate") LocalDate startDate,
                                  @Param("endDate") LocalDate endDate,
-                                 @Param("statuses") List<RentalOrderStatus> statuses);
+                                 @Param("statuses") Collection<RentalOrderStatus> statuses,
+                                 @Param("excludeOrderId") Long excludeOrderId);
+
+    @Query("""
+            select r.id as id, r.startDate as startDate, r.endDate as endDate
+            from RentalOrder r
+            where r.house.id = :houseId
+              and r.status in :statuses
+            """)
+    List<BookingView> findBookings(@Param("houseId") Long houseId,
+                                   @Param("statuses") Collection<RentalOrderStatus> statuses);
+
+    @Query("""
+            select r.id as id, r.createdAt as createdAt, r.house.id as houseId,
+                   r.tenant.id as tenantId, r.landlord.id as landlordId
+            from RentalOrder r
+            where r.status = :status
+              and r.startDate <= :date
+            order by r.startDate, r.id
+            """)
+    List<DueOrderView> findStartingBy(@Param("status") RentalOrderStatus status,
+                                      @Param("date") LocalDate date,
+                                      Pageable pageable);
+
+    @Query("""
+            select r.id as id, r.createdAt as createdAt, r.house.id as houseId,
+                   r.tenant.id as tenantId, r.landlord.id as landlordId
+            from RentalOrder r
+            where r.status = :status
+              and r.endDate < :date
+            order by r.endDate, r.id
+            """)
+    List<DueOrderView> findEndedBefore(@Param("status") RentalOrderStatus status,
+                                       @Param("date") LocalDate date,
+                                       Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update RentalOrder r
+            set r.status = :to, r.version = r.version + 1, r.updatedAt = :now
+            where r.id in :ids and r.status = :from
+            """)
+    int transition(@Param("ids") Collection<Long> ids,
+                   @Param("from") RentalOrderStatus from,
+                   @Param("to") RentalOrderStatus to,
+                   @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update RentalOrder r
+            set r.status = com.example.housebackend.domain.order.RentalOrderStatus.CANCELLED,
+                r.cancelledAt = :now, r.version = r.version + 1, r.updatedAt = :now
+            where r.id in :ids and r.status = com.example.housebackend.domain.order.RentalOrderStatus.PENDING
+            """)
+    int expirePending(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Query("select r.id from RentalOrder r where r.id in :ids and r.status = :status and r.updatedAt = :updatedAt")
+    List<Long> findIdsTransitionedAt(@Param("ids") Collection<Long> ids,
+                                     @Param("status") RentalOrderStatus status,
+                                     @Param("updatedAt") Instant updatedAt);
 }
@@ -0,0 +1,56 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.dto.statistics.AdminStatsDelta;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AdminStatsPublisher {
+
+    public static final String TOPIC = "/topic/admin/stats";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+
+    public void record(String key, long delta) {
+        if (delta != 0) {
+            pending.merge(key, delta, Long::sum);
+        }
+    }
+
+    public void statusChanged(String entity, Enum<?> oldStatus, Enum<?> newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        if (oldStatus != null) {
+            record(entity + ".status." + oldStatus.name(), -1);
+        }
+        if (newStatus != null) {
+            record(entity + ".status." + newStatus.name(), 1);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.statistics.stream-interval:PT1S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Long> changes = new TreeMap<>();
+        for (String key : pending.keySet()) {
+            Long value = pending.remove(key);
+            if (value != null && value != 0) {
+                changes.put(key, value);
+            }
+        }
+        if (!changes.isEmpty()) {
+            messagingTemplate.convertAndSend(TOPIC, new AdminStatsDelta(Instant.now(), changes));
+        }
+    }
+}
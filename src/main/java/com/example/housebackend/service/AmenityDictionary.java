@@ -0,0 +1,228 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.house.Amenity;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.repository.AmenityRepository;
+import com.example.housebackend.repository.HouseAmenityView;
+import com.example.housebackend.repository.HouseRepository;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 配套设施字典：每种配套对应 House.amenityMask 中的一位，"同时具备 A 和 B" 的过滤只需一次位与比较。
+ * 新配套在独立事务中登记，房源写入回滚也不会让内存字典与数据库错位。
+ * 位用完后新出现的配套照常保存在房源上，只是不占位，按这类配套过滤时改为连接 house_amenities。
+ */
+@Slf4j
+@Component
+public class AmenityDictionary {
+
+    static final int CAPACITY = Long.SIZE;
+    public static final int MAX_NAME_LENGTH = 64;
+    public static final int MAX_PER_HOUSE = 32;
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+    private static final int ASSIGN_ATTEMPTS = 3;
+
+    private final AmenityRepository amenityRepository;
+    private final HouseRepository houseRepository;
+    private final TransactionTemplate registerTransaction;
+    private final TransactionTemplate backfillTransaction;
+    private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> names = new AtomicReferenceArray<>(CAPACITY);
+    private volatile boolean loaded;
+
+    public AmenityDictionary(AmenityRepository amenityRepository,
+                             HouseRepository houseRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.amenityRepository = amenityRepository;
+        this.houseRepository = houseRepository;
+        this.registerTransaction = new TransactionTemplate(transactionManager);
+        this.registerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.backfillTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC).strip();
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    public static Set<String> normalizeAll(Collection<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (names == null) {
+            return normalized;
+        }
+        for (String name : names) {
+            String value = normalize(name);
+            if (value != null) {
+                normalized.add(value);
+            }
+        }
+        return normalized;
+    }
+
+    // 房源写入前校验，名称长度与 amenities.name 列一致
+    public static Set<String> requireValid(Collection<String> names) {
+        Set<String> normalized = normalizeAll(names);
+        if (normalized.size() > MAX_PER_HOUSE) {
+            throw new BadRequestException("每套房源最多填写 " + MAX_PER_HOUSE + " 项配套设施");
+        }
+        for (String name : normalized) {
+            if (name.length() > MAX_NAME_LENGTH) {
+                throw new BadRequestException("配套设施名称不能超过 " + MAX_NAME_LENGTH + " 个字符");
+            }
+        }
+        return normalized;
+    }
+
+    // 写入房源时调用，未登记的配套会分配新的位，位已用完的配套不计入位图
+    public long register(Collection<String> names) {
+        long mask = 0;
+        for (String name : normalizeAll(names)) {
+            Integer bit = loaded().get(name);
+            if (bit == null) {
+                bit = assign(name);
+            }
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    // 字典未满时，任一配套不在字典中说明不可能有房源具备它，返回 empty；字典已满时未登记的配套交给连接查询
+    public Optional<Filter> filterOf(Collection<String> names) {
+        long mask = 0;
+        Set<String> unindexed = new LinkedHashSet<>();
+        for (String name : normalizeAll(names)) {
+            Integer bit = loaded().get(name);
+            if (bit == null) {
+                reload();
+                bit = bits.get(name);
+            }
+            if (bit != null) {
+                mask |= 1L << bit;
+            } else if (bits.size() >= CAPACITY) {
+                unindexed.add(name);
+            } else {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new Filter(mask, unindexed));
+    }
+
+    public String nameOf(int bit) {
+        loaded();
+        return names.get(bit);
+    }
+
+    public int size() {
+        return loaded().size();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long after = 0;
+        int updated = 0;
+        while (true) {
+            List<Long> ids = houseRepository.findIdsMissingAmenityMask(after, PageRequest.of(0, BACKFILL_CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            updated += backfillTransaction.execute(status -> {
+                Map<Long, Set<String>> amenities = new HashMap<>();
+                for (HouseAmenityView view : houseRepository.findAmenities(ids)) {
+                    amenities.computeIfAbsent(view.getHouseId(), key -> new LinkedHashSet<>()).add(view.getAmenity());
+                }
+                int count = 0;
+                for (Map.Entry<Long, Set<String>> entry : amenities.entrySet()) {
+                    count += houseRepository.updateAmenityMask(entry.getKey(), register(entry.getValue()));
+                }
+                return count;
+            });
+            after = ids.get(ids.size() - 1);
+        }
+        if (updated > 0) {
+            log.info("已为 {} 套房源补齐配套位图", updated);
+        }
+    }
+
+    private synchronized Integer assign(String name) {
+        DataIntegrityViolationException conflict = null;
+        for (int attempt = 0; attempt < ASSIGN_ATTEMPTS; attempt++) {
+            Integer existing = bits.get(name);
+            if (existing != null || bits.size() >= CAPACITY) {
+                return existing;
+            }
+            try {
+                Amenity amenity = registerTransaction.execute(status -> {
+                    Integer maxBit = amenityRepository.findMaxBit();
+                    int next = maxBit == null ? 0 : maxBit + 1;
+                    if (next >= CAPACITY) {
+                        return null;
+                    }
+                    Amenity created = new Amenity();
+                    created.setName(name);
+                    created.setBit(next);
+                    return amenityRepository.saveAndFlush(created);
+                });
+                if (amenity == null) {
+                    reload();
+                    return bits.get(name);
+                }
+                remember(amenity);
+                return amenity.getBit();
+            } catch (DataIntegrityViolationException ex) {
+                // 其他实例同时登记了同名配套或占用了同一位，重新加载后再试
+                conflict = ex;
+                reload();
+            }
+        }
+        throw conflict;
+    }
+
+    private Map<String, Integer> loaded() {
+        if (!loaded) {
+            reload();
+        }
+        return bits;
+    }
+
+    private synchronized void reload() {
+        for (Amenity amenity : amenityRepository.findAll()) {
+            remember(amenity);
+        }
+        loaded = true;
+    }
+
+    private void remember(Amenity amenity) {
+        names.set(amenity.getBit(), amenity.getName());
+        bits.put(amenity.getName(), amenity.getBit());
+    }
+
+    // mask 为占位配套的位图，unindexed 为字典已满后才出现、只能按名称匹配的配套
+    public record Filter(long mask, Set<String> unindexed) {
+    }
+}
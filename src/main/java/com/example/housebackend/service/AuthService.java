@@ -1,5 +1,6 @@
 package com.example.housebackend.service;
 
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.domain.auth.AuthToken;
 import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserRole;
@@ -10,64 +11,135 @@ import com.example.housebackend.repository.UserRepository;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
     private final AuthTokenRepository authTokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final AuthTokenCache authTokenCache;
+    private final SignedTokenService signedTokenService;
+    private final LastLoginWriter lastLoginWriter;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    public AuthService(UserRepository userRepository,
+                       AuthTokenRepository authTokenRepository,
+                       PasswordHashingService passwordHashingService,
+                       AuthTokenCache authTokenCache,
+                       SignedTokenService signedTokenService,
+                       LastLoginWriter lastLoginWriter,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.authTokenRepository = authTokenRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.authTokenCache = authTokenCache;
+        this.signedTokenService = signedTokenService;
+        this.lastLoginWriter = lastLoginWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // BCrypt 在哈希线程池中排队，等待期间不能占用数据库连接，因此哈希放在事务之外
     public User register(String username, String password, String fullName, String phone, UserRole role) {
         if (userRepository.existsByUsername(username)) {
             throw new BadRequestException("用户名已存在");
         }
-        User user = new User();
-        user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
-        user.setFullName(fullName);
-        user.setPhone(phone);
-        user.setRole(role);
-        return userRepository.save(user);
+        String encoded = passwordHashingService.encode(password);
+        return transactionTemplate.execute(status -> {
+            if (userRepository.existsByUsername(username)) {
+                throw new BadRequestException("用户名已存在");
+            }
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(encoded);
+            user.setFullName(fullName);
+            user.setPhone(phone);
+            user.setRole(role);
+            return userRepository.save(user);
+        });
     }
 
-    @Transactional
     public AuthToken login(String username, String password) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("用户不存在"));
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             throw new BadRequestException("密码错误");
         }
-        user.setLastLoginAt(Instant.now());
+        lastLoginWriter.record(user.getId(), Instant.now());
         AuthToken token = new AuthToken();
         token.setUser(user);
-        token.setToken(UUID.randomUUID().toString());
         token.setExpiresAt(Instant.now().plus(7, ChronoUnit.DAYS));
+        if (signedTokenService.isIssuingSigned()) {
+            token.setToken(signedTokenService.issue(user, token.getExpiresAt()));
+            return token;
+        }
+        token.setToken(UUID.randomUUID().toString());
         return authTokenRepository.save(token);
     }
 
     @Transactional
     public void logout(String tokenValue) {
-        authTokenRepository.findByTokenAndRevokedFalse(tokenValue)
-                .ifPresent(token -> {
+        if (signedTokenService.isSignedToken(tokenValue)) {
+            authTokenCache.invalidateToken(tokenValue, signedTokenService.revoke(tokenValue));
+            return;
+        }
+        Long userId = authTokenRepository.findByTokenAndRevokedFalse(tokenValue)
+                .map(token -> {
                     token.setRevoked(true);
+                    token.setExpiresAt(Instant.now());
                     authTokenRepository.save(token);
-                });
+                    return token.getUser().getId();
+                })
+                .orElse(null);
+        authTokenCache.invalidateToken(tokenValue, userId);
     }
 
     @Transactional(readOnly = true)
-    public User requireUser(String tokenValue) {
+    public User loadUser(AuthPrincipal principal) {
+        return userRepository.findById(principal.id())
+                .orElseThrow(() -> new BadRequestException("无效的访问令牌"));
+    }
+
+    public AuthPrincipal requirePrincipal(String tokenValue) {
+        if (tokenValue == null) {
+            throw new BadRequestException("无效的访问令牌");
+        }
+        if (signedTokenService.isSignedToken(tokenValue)) {
+            return signedTokenService.verify(tokenValue);
+        }
+        return authTokenCache.get(tokenValue).orElseGet(() -> {
+            long generation = authTokenCache.generation();
+            AuthToken token = requireValidToken(tokenValue);
+            AuthPrincipal principal = AuthPrincipal.of(token.getUser());
+            authTokenCache.put(tokenValue, principal, token.getExpiresAt(), generation);
+            return principal;
+        });
+    }
+
+    public long revocationEpoch(Long userId) {
+        return authTokenCache.userEpoch(userId);
+    }
+
+    public void evictSessions(Long userId) {
+        authTokenCache.invalidateUser(userId);
+        signedTokenService.forgetUser(userId);
+    }
+
+    public void revokeSessions(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        evictSessions(user.getId());
+    }
+
+    private AuthToken requireValidToken(String tokenValue) {
         AuthToken token = authTokenRepository.findByTokenAndRevokedFalse(tokenValue)
                 .orElseThrow(() -> new BadRequestException("无效的访问令牌"));
         if (token.getExpiresAt() != null && token.getExpiresAt().isBefore(Instant.now())) {
             throw new BadRequestException("访问令牌已过期");
         }
-        return token.getUser();
+        return token;
     }
 }
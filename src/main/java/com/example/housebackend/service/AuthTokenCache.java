@@ -0,0 +1,185 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.auth.AuthPrincipal;
+import com.example.housebackend.dto.metrics.CacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class AuthTokenCache {
+
+    private static final int USER_EPOCH_STRIPES = 4096;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLongArray userEpochs = new AtomicLongArray(USER_EPOCH_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public AuthTokenCache(@Value("${app.auth.cache.ttl:PT5M}") Duration ttl,
+                          @Value("${app.auth.cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+
+    public Optional<AuthPrincipal> get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            if (entries.remove(token, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.principal());
+    }
+
+    /**
+     * 读取数据库前获取当前代数；若期间发生失效，{@link #put} 将放弃写入，避免缓存旧快照。
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 按用户分片的失效计数，只有该用户（或同一分片的用户）的令牌失效时才变化，供长连接判断是否需要重新校验。
+     */
+    public long userEpoch(Long userId) {
+        return userEpochs.get(stripeOf(userId));
+    }
+
+    public void put(String token, AuthPrincipal principal, Instant tokenExpiresAt, long observedGeneration) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        if (tokenExpiresAt != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiresAt.toEpochMilli());
+        }
+        if (observedGeneration != generation.get()) {
+            return;
+        }
+        entries.put(token, new Entry(principal, expiresAt));
+        if (entries.size() > maxSize) {
+            evictOverflow();
+        }
+    }
+
+    // userId 未知时传 null，按缓存中的身份推断
+    public void invalidateToken(String token, Long userId) {
+        removeToken(token, userId);
+        afterCommit(() -> removeToken(token, userId));
+    }
+
+    public void invalidateUser(Long userId) {
+        removeUser(userId);
+        afterCommit(() -> removeUser(userId));
+    }
+
+    public CacheMetrics metrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new CacheMetrics(
+                entries.size(),
+                maxSize,
+                hitCount,
+                missCount,
+                evictions.sum(),
+                invalidations.sum(),
+                total == 0 ? 0D : (double) hitCount / total);
+    }
+
+    private void removeToken(String token, Long userId) {
+        generation.incrementAndGet();
+        Entry removed = entries.remove(token);
+        if (removed != null) {
+            invalidations.increment();
+        }
+        Long owner = userId != null ? userId : removed != null ? removed.principal().id() : null;
+        if (owner != null) {
+            userEpochs.incrementAndGet(stripeOf(owner));
+        }
+    }
+
+    private void removeUser(Long userId) {
+        generation.incrementAndGet();
+        userEpochs.incrementAndGet(stripeOf(userId));
+        entries.entrySet().removeIf(entry -> {
+            boolean matched = entry.getValue().principal().id().equals(userId);
+            if (matched) {
+                invalidations.increment();
+            }
+            return matched;
+        });
+    }
+
+    private synchronized void evictOverflow() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        int target = Math.max(0, maxSize - maxSize / 10);
+        int overflow = entries.size() - target;
+        if (overflow <= 0) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt()));
+        for (int i = 0; i < overflow && i < snapshot.size(); i++) {
+            Map.Entry<String, Entry> victim = snapshot.get(i);
+            if (entries.remove(victim.getKey(), victim.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static int stripeOf(Long userId) {
+        int hash = userId.hashCode();
+        return (hash ^ (hash >>> 16)) & (USER_EPOCH_STRIPES - 1);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Entry(AuthPrincipal principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.dto.metrics.SweepMetrics;
+import com.example.housebackend.repository.AuthTokenRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class AuthTokenSweeper {
+
+    private final AuthTokenRepository authTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder totalPurged = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastPurged;
+    private volatile long lastDurationMillis;
+    private volatile Instant lastRunAt;
+
+    public AuthTokenSweeper(AuthTokenRepository authTokenRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.auth.token-sweeper.chunk-size:500}") int chunkSize,
+                            @Value("${app.auth.token-sweeper.max-chunks:200}") int maxChunks) {
+        this.authTokenRepository = authTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunks = Math.max(1, maxChunks);
+    }
+
+    @Scheduled(initialDelayString = "${app.auth.token-sweeper.initial-delay:PT1M}",
+            fixedDelayString = "${app.auth.token-sweeper.interval:PT15M}")
+    public long sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now();
+        long purged = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunks; chunk++) {
+                List<Long> ids = authTokenRepository.findExpiredIds(cutoff, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer deleted = transactionTemplate.execute(status -> authTokenRepository.deleteByIdIn(ids));
+                purged += deleted == null ? 0 : deleted;
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("过期令牌清理失败，已清理 {} 条，剩余部分将在下次执行时继续", purged, ex);
+        } finally {
+            runs.increment();
+            totalPurged.add(purged);
+            lastPurged = purged;
+            lastDurationMillis = (System.nanoTime() - start) / 1_000_000;
+            lastRunAt = cutoff;
+            running.set(false);
+        }
+        return purged;
+    }
+
+    public SweepMetrics metrics() {
+        return new SweepMetrics(
+                runs.sum(),
+                totalPurged.sum(),
+                lastPurged,
+                lastDurationMillis,
+                lastRunAt,
+                failures.sum());
+    }
+}
@@ -22,6 +22,7 @@ public class CertificationService {
     private final LandlordCertificationRepository certificationRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final AuthService authService;
 
     @Transactional
     public LandlordCertification submitCertification(Long userId, List<String> documentUrls, String reason) {
@@ -57,6 +58,7 @@ public class CertificationService {
         if (status == LandlordCertificationStatus.APPROVED) {
             var user = certification.getUser();
             user.setRole(com.example.housebackend.domain.user.UserRole.LANDLORD);
+            authService.revokeSessions(user);
             userRepository.save(user);
         }
         return certificationRepository.save(certification);
@@ -1,14 +1,15 @@
 package com.example.housebackend.service;
 
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.domain.chat.ChatMessage;
 import com.example.housebackend.domain.contact.ContactRecord;
-import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserRole;
 import com.example.housebackend.exception.AccessDeniedException;
 import com.example.housebackend.exception.BadRequestException;
 import com.example.housebackend.exception.ResourceNotFoundException;
 import com.example.housebackend.repository.ChatMessageRepository;
 import com.example.housebackend.repository.ContactRecordRepository;
+import com.example.housebackend.repository.UserRepository;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -24,9 +25,10 @@ public class ChatService {
 
     private final ChatMessageRepository chatMessageRepository;
     private final ContactRecordRepository contactRecordRepository;
+    private final UserRepository userRepository;
 
     @Transactional
-    public ChatMessage sendMessage(Long contactId, User sender, String content, List<String> rawImageUrls) {
+    public ChatMessage sendMessage(Long contactId, AuthPrincipal sender, String content, List<String> rawImageUrls) {
         ContactRecord record = requireContact(contactId);
         ensureParticipant(record, sender);
         if (!StringUtils.hasText(content) && (rawImageUrls == null || rawImageUrls.stream().noneMatch(StringUtils::hasText))) {
@@ -34,15 +36,15 @@ public class ChatService {
         }
         ChatMessage message = new ChatMessage();
         message.setContactRecord(record);
-        message.setSender(sender);
-        message.setSenderRole(sender.getRole());
+        message.setSender(userRepository.getReferenceById(sender.id()));
+        message.setSenderRole(sender.role());
         message.setContent(StringUtils.hasText(content) ? content.trim() : null);
         message.setImageUrls(sanitizeImageUrls(rawImageUrls));
         return chatMessageRepository.save(message);
     }
 
     @Transactional(readOnly = true)
-    public Page<ChatMessage> listMessages(Long contactId, User requester, Pageable pageable) {
+    public Page<ChatMessage> listMessages(Long contactId, AuthPrincipal requester, Pageable pageable) {
         ContactRecord record = requireContact(contactId);
         ensureParticipant(record, requester);
         return chatMessageRepository.findByContactRecordId(contactId, pageable);
@@ -53,11 +55,11 @@ public class ChatService {
                 .orElseThrow(() -> new ResourceNotFoundException("联系记录不存在"));
     }
 
-    private void ensureParticipant(ContactRecord record, User user) {
-        if (user.getRole() == UserRole.ADMIN) {
+    private void ensureParticipant(ContactRecord record, AuthPrincipal user) {
+        if (user.role() == UserRole.ADMIN) {
             return;
         }
-        Long userId = user.getId();
+        Long userId = user.id();
         if (record.getTenant() != null && record.getTenant().getId().equals(userId)) {
             return;
         }
@@ -0,0 +1,37 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.util.StringUtils;
+
+public record DistanceCursor(double distance, Long id) {
+
+    private static final String VERSION = "d1";
+
+    public String encode() {
+        String raw = VERSION + ":" + Double.doubleToLongBits(distance) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DistanceCursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("无效的分页游标");
+            }
+            return new DistanceCursor(Double.longBitsToDouble(Long.parseLong(parts[1])), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("无效的分页游标");
+        }
+    }
+
+    public boolean precedes(double otherDistance, Long otherId) {
+        int compared = Double.compare(distance, otherDistance);
+        return compared < 0 || compared == 0 && id < otherId;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.housebackend.service;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Geohash 编码与距离计算；同一前缀的房源落在同一个经纬度矩形内，可用前缀索引做范围扫描
+public final class GeoHash {
+
+    public static final int PRECISION = 12;
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+    // 一次范围查询最多展开的格子数
+    private static final int MAX_CELLS = 32;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, PRECISION);
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLng = -180;
+        double maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean even = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (even) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            even = !even;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static double metersToLatitudeDegrees(double meters) {
+        return meters / METERS_PER_DEGREE;
+    }
+
+    public static double metersToLongitudeDegrees(double meters, double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        return cos < 1e-6 ? 360 : Math.min(360, meters / (METERS_PER_DEGREE * cos));
+    }
+
+    // 覆盖给定矩形的 geohash 前缀：取格子数不超过上限的最细精度
+    public static Set<String> cover(double minLat, double maxLat, double minLng, double maxLng) {
+        for (int precision = PRECISION; precision > 1; precision--) {
+            double height = 180 / Math.pow(2, (5 * precision) / 2);
+            double width = 360 / Math.pow(2, (5 * precision + 1) / 2);
+            long rows = (long) Math.ceil((maxLat - minLat) / height) + 1;
+            long columns = (long) Math.ceil((maxLng - minLng) / width) + 1;
+            if (rows * columns <= MAX_CELLS) {
+                return cells(minLat, maxLat, minLng, maxLng, precision, height, width);
+            }
+        }
+        return cells(minLat, maxLat, minLng, maxLng, 1, 45, 45);
+    }
+
+    private static Set<String> cells(double minLat, double maxLat, double minLng, double maxLng,
+                                     int precision, double height, double width) {
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = minLat; ; lat = Math.min(maxLat, lat + height)) {
+            for (double lng = minLng; ; lng = Math.min(maxLng, lng + width)) {
+                cells.add(encode(lat, lng, precision));
+                if (lng >= maxLng) {
+                    break;
+                }
+            }
+            if (lat >= maxLat) {
+                break;
+            }
+        }
+        return cells;
+    }
+}
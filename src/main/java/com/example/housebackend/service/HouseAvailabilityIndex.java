@@ -0,0 +1,264 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.order.RentalOrder;
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.dto.house.BookedRange;
+import com.example.housebackend.repository.BookingView;
+import com.example.housebackend.repository.RentalOrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HouseAvailabilityIndex implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    public static final Set<RentalOrderStatus> BOOKED_STATUSES =
+            EnumSet.of(RentalOrderStatus.CONFIRMED, RentalOrderStatus.ACTIVE);
+
+    private final RentalOrderRepository rentalOrderRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long maxAgeNanos;
+    private final int maxHouses;
+    private final ConcurrentHashMap<Long, HouseBookings> houses = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public HouseAvailabilityIndex(RentalOrderRepository rentalOrderRepository,
+                                  EntityManagerFactory entityManagerFactory,
+                                  @Value("${app.orders.availability.max-age:PT10M}") Duration maxAge,
+                                  @Value("${app.orders.availability.max-houses:10000}") int maxHouses) {
+        this.rentalOrderRepository = rentalOrderRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.maxHouses = maxHouses;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    public boolean hasOverlap(Long houseId, LocalDate startDate, LocalDate endDate, Long excludeOrderId) {
+        return bookings(houseId).hasOverlap(startDate, endDate, excludeOrderId);
+    }
+
+    public List<BookedRange> bookedBetween(Long houseId, LocalDate from, LocalDate to) {
+        return bookings(houseId).between(from, to);
+    }
+
+    public void evict(Long houseId) {
+        generation.incrementAndGet();
+        houses.remove(houseId);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return RentalOrder.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof RentalOrder order) {
+            apply(order, false);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof RentalOrder order) {
+            apply(order, false);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof RentalOrder order) {
+            apply(order, true);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void apply(RentalOrder order, boolean deleted) {
+        Long houseId = houseIdOf(order);
+        if (houseId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        HouseBookings bookings = houses.get(houseId);
+        if (bookings == null) {
+            return;
+        }
+        boolean booked = !deleted && BOOKED_STATUSES.contains(order.getStatus())
+                && order.getStartDate() != null && order.getEndDate() != null;
+        bookings.replace(order.getId(), booked ? new Booking(order.getId(), order.getStartDate(), order.getEndDate()) : null);
+    }
+
+    private HouseBookings bookings(Long houseId) {
+        HouseBookings cached = houses.get(houseId);
+        if (cached != null && System.nanoTime() - cached.loadedAt < maxAgeNanos) {
+            return cached;
+        }
+        long observed = generation.get();
+        HouseBookings loaded = new HouseBookings(System.nanoTime());
+        for (BookingView view : rentalOrderRepository.findBookings(houseId, BOOKED_STATUSES)) {
+            if (view.getStartDate() != null && view.getEndDate() != null) {
+                loaded.replace(view.getId(), new Booking(view.getId(), view.getStartDate(), view.getEndDate()));
+            }
+        }
+        if (maxHouses > 0 && generation.get() == observed) {
+            houses.put(houseId, loaded);
+            if (houses.size() > maxHouses) {
+                evictOverflow();
+            }
+        }
+        return loaded;
+    }
+
+    // 公开的日历接口按房源逐个填充，超出上限时淘汰最早加载的十分之一
+    private synchronized void evictOverflow() {
+        int overflow = houses.size() - Math.max(0, maxHouses - maxHouses / 10);
+        if (overflow <= 0) {
+            return;
+        }
+        List<Map.Entry<Long, HouseBookings>> snapshot = new ArrayList<>(houses.entrySet());
+        snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().loadedAt));
+        for (int i = 0; i < overflow && i < snapshot.size(); i++) {
+            Map.Entry<Long, HouseBookings> victim = snapshot.get(i);
+            houses.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private static Long houseIdOf(RentalOrder order) {
+        Object house = order.getHouse();
+        if (house instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return order.getHouse() != null ? order.getHouse().getId() : null;
+    }
+
+    record Booking(Long orderId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    static final class HouseBookings {
+
+        private static final Comparator<Booking> ORDER = Comparator.comparing(Booking::startDate)
+                .thenComparing(Booking::orderId);
+
+        private final long loadedAt;
+        private final NavigableSet<Booking> byStart = new TreeSet<>(ORDER);
+        private final Map<Long, Booking> byOrder = new HashMap<>();
+        private long longestDays;
+
+        HouseBookings(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void replace(Long orderId, Booking booking) {
+            Booking previous = byOrder.remove(orderId);
+            if (previous != null) {
+                byStart.remove(previous);
+            }
+            if (booking != null) {
+                byOrder.put(orderId, booking);
+                byStart.add(booking);
+                longestDays = Math.max(longestDays, ChronoUnit.DAYS.between(booking.startDate(), booking.endDate()));
+            }
+        }
+
+        synchronized boolean hasOverlap(LocalDate startDate, LocalDate endDate, Long excludeOrderId) {
+            Iterator<Booking> candidates = candidates(startDate, endDate);
+            while (candidates.hasNext()) {
+                Booking booking = candidates.next();
+                if (!booking.orderId().equals(excludeOrderId) && !booking.endDate().isBefore(startDate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized List<BookedRange> between(LocalDate from, LocalDate to) {
+            List<BookedRange> ranges = new ArrayList<>();
+            Iterator<Booking> candidates = candidates(from, to);
+            while (candidates.hasNext()) {
+                Booking booking = candidates.next();
+                if (!booking.endDate().isBefore(from)) {
+                    ranges.add(new BookedRange(booking.startDate(), booking.endDate()));
+                }
+            }
+            ranges.sort(Comparator.comparing(BookedRange::startDate));
+            return ranges;
+        }
+
+        private Iterator<Booking> candidates(LocalDate startDate, LocalDate endDate) {
+            LocalDate earliestStart = startDate.minusDays(longestDays);
+            Iterator<Booking> descending = byStart.headSet(new Booking(Long.MAX_VALUE, endDate, endDate), true)
+                    .descendingIterator();
+            return new Iterator<>() {
+                private Booking next = advance();
+
+                private Booking advance() {
+                    if (descending.hasNext()) {
+                        Booking candidate = descending.next();
+                        return candidate.startDate().isBefore(earliestStart) ? null : candidate;
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Booking next() {
+                    Booking current = next;
+                    next = advance();
+                    return current;
+                }
+            };
+        }
+    }
+}
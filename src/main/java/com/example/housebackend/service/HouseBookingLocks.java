@@ -0,0 +1,82 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.dto.metrics.BookingLockMetrics;
+import com.example.housebackend.exception.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class HouseBookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LatencyHistogram waitLatency = new LatencyHistogram();
+
+    public HouseBookingLocks(@Value("${app.orders.booking-lock.stripes:256}") int stripes,
+                             @Value("${app.orders.booking-lock.timeout:PT5S}") Duration timeout) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    // 锁在事务完成后才释放，下一个持锁者能看到已提交的租期
+    public void lockUntilCompletion(Long houseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("预订锁必须在事务中获取");
+        }
+        ReentrantLock lock = stripeFor(houseId);
+        long start = System.nanoTime();
+        if (!lock.tryLock()) {
+            contended.increment();
+            boolean acquired;
+            try {
+                acquired = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                timeouts.increment();
+                throw new ServiceUnavailableException("房源预订繁忙，请稍后重试");
+            }
+        }
+        waitLatency.record(System.nanoTime() - start);
+        acquisitions.increment();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    public BookingLockMetrics metrics() {
+        int held = 0;
+        for (ReentrantLock stripe : stripes) {
+            if (stripe.isLocked()) {
+                held++;
+            }
+        }
+        return new BookingLockMetrics(stripes.length, held, acquisitions.sum(), contended.sum(),
+                timeouts.sum(), waitLatency.snapshot());
+    }
+
+    private ReentrantLock stripeFor(Long houseId) {
+        int hash = houseId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
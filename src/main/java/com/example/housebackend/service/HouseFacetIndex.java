@@ -0,0 +1,527 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.dto.house.FacetCount;
+import com.example.housebackend.dto.house.HouseFacetsResponse;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.repository.HouseFacetView;
+import com.example.housebackend.repository.HouseRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * 已发布房源的内存列式分面索引：每个属性一列原始类型数组，配套另存每个取值的位图。
+ * 一次遍历同时算出地区、地铁、户型、价格区间与配套的计数；某一维度的计数不受该维度自身条件限制，
+ * 便于前端切换选项。可租日期需要查订单，不参与分面计数。
+ */
+@Slf4j
+@Component
+public class HouseFacetIndex {
+
+    // 价格区间的分界（元），落在 [上一个分界, 当前分界) 内
+    static final long[] PRICE_BOUNDS = {2000, 3000, 4000, 5000, 7000, 10000};
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+    private static final int NO_VALUE = -1;
+    private static final int UNKNOWN_VALUE = -2;
+    // 租金上下限不设时的哨兵，留出余量保证相减不溢出
+    private static final long UNBOUNDED_CENTS = Long.MAX_VALUE / 4;
+
+    private final HouseRepository houseRepository;
+    private final AmenityDictionary amenityDictionary;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns();
+    private List<FacetRow> replay;
+
+    public HouseFacetIndex(HouseRepository houseRepository, AmenityDictionary amenityDictionary) {
+        this.houseRepository = houseRepository;
+        this.amenityDictionary = amenityDictionary;
+    }
+
+    public void put(House house) {
+        FacetRow row = house.getStatus() == HouseStatus.PUBLISHED ? toRow(house) : FacetRow.removed(house.getId());
+        afterCommit(() -> apply(row));
+    }
+
+    public void remove(Long houseId) {
+        afterCommit(() -> apply(FacetRow.removed(houseId)));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param amenityMask 必须同时具备的配套位，0 表示不限
+     * @param restrictTo  关键词命中的房源 id，null 表示不限
+     */
+    public HouseFacetsResponse facets(HouseSearchCriteria criteria, long amenityMask, Collection<Long> restrictTo) {
+        if (criteria.status() != null && criteria.status() != HouseStatus.PUBLISHED) {
+            return HouseFacetsResponse.empty();
+        }
+        Scan scan = new Scan();
+        if (criteria.minPrice() != null) {
+            scan.minPrice = cents(criteria.minPrice(), RoundingMode.CEILING);
+        }
+        if (criteria.maxPrice() != null) {
+            scan.maxPrice = cents(criteria.maxPrice(), RoundingMode.FLOOR);
+        }
+        if (criteria.minArea() != null || criteria.maxArea() != null) {
+            scan.filterArea = true;
+            scan.minArea = criteria.minArea() != null ? criteria.minArea() : Double.NEGATIVE_INFINITY;
+            scan.maxArea = criteria.maxArea() != null ? criteria.maxArea() : Double.POSITIVE_INFINITY;
+        }
+        if (criteria.moveInBy() != null) {
+            scan.filterMoveIn = true;
+            scan.moveInBy = (int) criteria.moveInBy().toEpochDay();
+        }
+        String layoutFilter = StringUtils.hasText(criteria.layout()) ? criteria.layout().trim() : null;
+
+        int[] amenityCounts = new int[AmenityDictionary.CAPACITY];
+        int total = 0;
+        List<String> regionLabels;
+        List<String> subwayLabels;
+        List<String> layoutLabels;
+        List<Object> regionValues;
+        List<Object> subwayValues;
+        List<Object> layoutValues;
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            if (criteria.regionId() != null) {
+                scan.region = c.regions.codeOf(criteria.regionId());
+                scan.anyRegion = 0;
+            }
+            if (criteria.subwayId() != null) {
+                scan.subway = c.subways.codeOf(criteria.subwayId());
+                scan.anySubway = 0;
+            }
+            if (layoutFilter != null) {
+                scan.layout = c.layouts.codeOf(layoutFilter);
+                scan.anyLayout = 0;
+            }
+            long[] candidates = c.live.clone();
+            for (long bits = amenityMask; bits != 0; bits &= bits - 1) {
+                and(candidates, c.amenitySlots[Long.numberOfTrailingZeros(bits)]);
+            }
+            if (restrictTo != null) {
+                long[] matched = new long[candidates.length];
+                for (Long id : restrictTo) {
+                    Integer slot = c.slotById.get(id);
+                    if (slot != null) {
+                        matched[slot >>> 6] |= 1L << slot;
+                    }
+                }
+                and(candidates, matched);
+            }
+            long[] passed = scan.run(c, candidates);
+            // 配套计数用位图求交，不必逐行拆位
+            for (int word = 0; word < passed.length; word++) {
+                total += Long.bitCount(passed[word]);
+            }
+            for (int bit = 0; bit < amenityCounts.length; bit++) {
+                long[] withAmenity = c.amenitySlots[bit];
+                if (withAmenity == null) {
+                    continue;
+                }
+                int count = 0;
+                for (int word = 0; word < Math.min(passed.length, withAmenity.length); word++) {
+                    count += Long.bitCount(passed[word] & withAmenity[word]);
+                }
+                amenityCounts[bit] = count;
+            }
+            regionValues = new ArrayList<>(c.regions.values);
+            regionLabels = new ArrayList<>(c.regions.labels);
+            subwayValues = new ArrayList<>(c.subways.values);
+            subwayLabels = new ArrayList<>(c.subways.labels);
+            layoutValues = new ArrayList<>(c.layouts.values);
+            layoutLabels = new ArrayList<>(c.layouts.labels);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new HouseFacetsResponse(total,
+                codedFacet(scan.regionCounts, regionValues, regionLabels),
+                codedFacet(scan.subwayCounts, subwayValues, subwayLabels),
+                codedFacet(scan.layoutCounts, layoutValues, layoutLabels),
+                priceFacet(scan.priceCounts),
+                facet(amenityCounts, amenityDictionary::nameOf, amenityDictionary::nameOf));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.house.facet-index.rebuild-interval:PT30M}",
+            fixedDelayString = "${app.house.facet-index.rebuild-interval:PT30M}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Columns fresh = new Columns();
+        try {
+            long after = 0;
+            while (true) {
+                List<HouseFacetView> rows = houseRepository.findFacetRows(HouseStatus.PUBLISHED, after,
+                        PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                for (HouseFacetView row : rows) {
+                    fresh.put(toRow(row));
+                }
+                if (rows.size() < REBUILD_CHUNK_SIZE) {
+                    break;
+                }
+                after = rows.get(rows.size() - 1).getId();
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("房源分面索引重建失败，继续使用现有索引", ex);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<FacetRow> missed = replay;
+            replay = null;
+            columns = fresh;
+            // 重建期间提交的变更按提交顺序重放到新索引
+            missed.forEach(fresh::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("房源分面索引已重建：{} 套已发布房源，用时 {} ms", fresh.slotById.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void apply(FacetRow row) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                replay.add(row);
+            }
+            columns.put(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static FacetRow toRow(House house) {
+        return new FacetRow(house.getId(),
+                house.getRegion() != null ? house.getRegion().getId() : null,
+                house.getRegion() != null ? house.getRegion().getName() : null,
+                house.getSubwayLine() != null ? house.getSubwayLine().getId() : null,
+                house.getSubwayLine() != null ? house.getSubwayLine().getLineName() : null,
+                house.getLayout(), house.getRentPrice(), house.getArea(), house.getAvailableFrom(),
+                house.getAmenityMask(), true);
+    }
+
+    private static FacetRow toRow(HouseFacetView view) {
+        return new FacetRow(view.getId(), view.getRegionId(), view.getRegionName(), view.getSubwayLineId(),
+                view.getSubwayLineName(), view.getLayout(), view.getRentPrice(), view.getArea(),
+                view.getAvailableFrom(), view.getAmenityMask(), true);
+    }
+
+    private static long cents(BigDecimal amount, RoundingMode rounding) {
+        return amount.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    private static int priceBucket(long cents) {
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS.length && cents >= PRICE_BOUNDS[bucket] * 100) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    // 相等返回 1，否则返回 0
+    private static int same(int a, int b) {
+        int diff = a ^ b;
+        return ((diff | -diff) >>> 31) ^ 1;
+    }
+
+    // lo <= value <= hi 返回 1，否则返回 0
+    private static int within(long value, long lo, long hi) {
+        return (int) (~((value - lo) | (hi - value)) >>> 63);
+    }
+
+    private static void and(long[] target, long[] mask) {
+        if (mask == null) {
+            Arrays.fill(target, 0);
+            return;
+        }
+        for (int word = 0; word < target.length; word++) {
+            target[word] &= word < mask.length ? mask[word] : 0;
+        }
+    }
+
+    private static List<FacetCount> facet(int[] counts, IntFunction<String> value, IntFunction<String> label) {
+        List<FacetCount> items = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                items.add(new FacetCount(value.apply(code), label.apply(code), counts[code]));
+            }
+        }
+        items.sort(Comparator.comparingLong(FacetCount::count).reversed());
+        return items;
+    }
+
+    private static List<FacetCount> codedFacet(int[] counts, List<Object> values, List<String> labels) {
+        List<FacetCount> items = new ArrayList<>();
+        for (int code = 1; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                items.add(new FacetCount(String.valueOf(values.get(code - 1)), labels.get(code - 1), counts[code]));
+            }
+        }
+        items.sort(Comparator.comparingLong(FacetCount::count).reversed());
+        return items;
+    }
+
+    private static List<FacetCount> priceFacet(int[] counts) {
+        List<FacetCount> items = new ArrayList<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] == 0) {
+                continue;
+            }
+            long from = bucket == 0 ? 0 : PRICE_BOUNDS[bucket - 1];
+            if (bucket == PRICE_BOUNDS.length) {
+                items.add(new FacetCount(from + "-", from + " 元以上", counts[bucket]));
+            } else if (bucket == 0) {
+                items.add(new FacetCount("0-" + PRICE_BOUNDS[0], PRICE_BOUNDS[0] + " 元以下", counts[bucket]));
+            } else {
+                items.add(new FacetCount(from + "-" + PRICE_BOUNDS[bucket], from + "-" + PRICE_BOUNDS[bucket] + " 元",
+                        counts[bucket]));
+            }
+        }
+        return items;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    record FacetRow(Long id, Long regionId, String regionName, Long subwayLineId, String subwayLineName,
+                    String layout, BigDecimal rentPrice, Double area, LocalDate availableFrom, long amenityMask,
+                    boolean published) {
+
+        static FacetRow removed(Long id) {
+            return new FacetRow(id, null, null, null, null, null, null, null, null, 0, false);
+        }
+    }
+
+    // 一次遍历用到的过滤条件与各维度计数
+    private static final class Scan {
+
+        private int region = NO_VALUE;
+        private int subway = NO_VALUE;
+        private int layout = NO_VALUE;
+        private int anyRegion = 1;
+        private int anySubway = 1;
+        private int anyLayout = 1;
+        private long minPrice = -UNBOUNDED_CENTS;
+        private long maxPrice = UNBOUNDED_CENTS;
+        private boolean filterArea;
+        private double minArea;
+        private double maxArea;
+        private boolean filterMoveIn;
+        private int moveInBy;
+        private int[] regionCounts;
+        private int[] subwayCounts;
+        private int[] layoutCounts;
+        private final int[] priceCounts = new int[PRICE_BOUNDS.length + 1];
+
+        // 返回满足全部条件的槽位位图
+        long[] run(Columns c, long[] candidates) {
+            // 下标 0 统计未设置该属性的房源，不对外输出
+            int[] regionCounts = this.regionCounts = new int[c.regions.size() + 1];
+            int[] subwayCounts = this.subwayCounts = new int[c.subways.size() + 1];
+            int[] layoutCounts = this.layoutCounts = new int[c.layouts.size() + 1];
+            int[] priceCounts = this.priceCounts;
+            int[] regions = c.region;
+            int[] subways = c.subway;
+            int[] layouts = c.layout;
+            long[] prices = c.priceCents;
+            byte[] buckets = c.priceBucket;
+            long[] passed = new long[candidates.length];
+            for (int word = 0; word < candidates.length; word++) {
+                long matched = 0;
+                for (long bits = candidates[word]; bits != 0; bits &= bits - 1) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (filterArea && !(c.area[slot] >= minArea && c.area[slot] <= maxArea)
+                            || filterMoveIn && c.availableFrom[slot] > moveInBy) {
+                        continue;
+                    }
+                    // 某一维度的计数只看其余维度是否满足；全部用位运算，避免随机数据下的分支预测失败
+                    int regionOk = anyRegion | same(regions[slot], region);
+                    int subwayOk = anySubway | same(subways[slot], subway);
+                    int layoutOk = anyLayout | same(layouts[slot], layout);
+                    int priceOk = within(prices[slot], minPrice, maxPrice);
+                    matched |= (long) (regionOk & subwayOk & layoutOk & priceOk) << slot;
+                    regionCounts[regions[slot] + 1] += subwayOk & layoutOk & priceOk;
+                    subwayCounts[subways[slot] + 1] += regionOk & layoutOk & priceOk;
+                    layoutCounts[layouts[slot] + 1] += regionOk & subwayOk & priceOk;
+                    priceCounts[buckets[slot]] += regionOk & subwayOk & layoutOk;
+                }
+                passed[word] = matched;
+            }
+            return passed;
+        }
+    }
+
+    private static final class Columns {
+
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        // 位图按 64 个槽位一个 long 存放
+        private long[] live = new long[16];
+        private final long[][] amenitySlots = new long[AmenityDictionary.CAPACITY][];
+        private final Values regions = new Values();
+        private final Values subways = new Values();
+        private final Values layouts = new Values();
+        private int[] region = new int[1024];
+        private int[] subway = new int[1024];
+        private int[] layout = new int[1024];
+        private long[] priceCents = new long[1024];
+        private byte[] priceBucket = new byte[1024];
+        private double[] area = new double[1024];
+        private int[] availableFrom = new int[1024];
+        private long[] amenityMask = new long[1024];
+        private int size;
+
+        void put(FacetRow row) {
+            Integer existing = slotById.get(row.id());
+            if (!row.published()) {
+                if (existing != null) {
+                    clearAmenities(existing);
+                    live[existing >>> 6] &= ~(1L << existing);
+                    slotById.remove(row.id());
+                    freeSlots.push(existing);
+                }
+                return;
+            }
+            int slot = existing != null ? existing : allocate(row.id());
+            clearAmenities(slot);
+            region[slot] = regions.encode(row.regionId(), row.regionName());
+            subway[slot] = subways.encode(row.subwayLineId(), row.subwayLineName());
+            layout[slot] = StringUtils.hasText(row.layout())
+                    ? layouts.encode(row.layout().trim(), row.layout().trim()) : NO_VALUE;
+            priceCents[slot] = row.rentPrice() != null ? cents(row.rentPrice(), RoundingMode.HALF_UP) : 0;
+            priceBucket[slot] = (byte) priceBucket(priceCents[slot]);
+            area[slot] = row.area() != null ? row.area() : Double.NaN;
+            availableFrom[slot] = row.availableFrom() != null ? (int) row.availableFrom().toEpochDay() : Integer.MIN_VALUE;
+            amenityMask[slot] = row.amenityMask();
+            for (long bits = row.amenityMask(); bits != 0; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                if (amenitySlots[bit] == null) {
+                    amenitySlots[bit] = new long[live.length];
+                }
+                amenitySlots[bit][slot >>> 6] |= 1L << slot;
+            }
+            live[slot >>> 6] |= 1L << slot;
+        }
+
+        private int allocate(Long id) {
+            int slot = freeSlots.isEmpty() ? size++ : freeSlots.pop();
+            if (slot >= region.length) {
+                int capacity = region.length * 2;
+                region = Arrays.copyOf(region, capacity);
+                subway = Arrays.copyOf(subway, capacity);
+                layout = Arrays.copyOf(layout, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                priceBucket = Arrays.copyOf(priceBucket, capacity);
+                area = Arrays.copyOf(area, capacity);
+                availableFrom = Arrays.copyOf(availableFrom, capacity);
+                amenityMask = Arrays.copyOf(amenityMask, capacity);
+                live = Arrays.copyOf(live, capacity >>> 6);
+                for (int bit = 0; bit < amenitySlots.length; bit++) {
+                    if (amenitySlots[bit] != null) {
+                        amenitySlots[bit] = Arrays.copyOf(amenitySlots[bit], capacity >>> 6);
+                    }
+                }
+            }
+            slotById.put(id, slot);
+            return slot;
+        }
+
+        private void clearAmenities(int slot) {
+            for (long bits = amenityMask[slot]; bits != 0; bits &= bits - 1) {
+                amenitySlots[Long.numberOfTrailingZeros(bits)][slot >>> 6] &= ~(1L << slot);
+            }
+            amenityMask[slot] = 0;
+        }
+    }
+
+    // 单值属性的字典编码，编码只增不减；标签取最近一次写入的值
+    private static final class Values {
+
+        private final Map<Object, Integer> codes = new HashMap<>();
+        private final List<Object> values = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+
+        int encode(Object value, String label) {
+            if (value == null) {
+                return NO_VALUE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                labels.add(label);
+            } else if (label != null) {
+                labels.set(code, label);
+            }
+            return code;
+        }
+
+        int codeOf(Object value) {
+            return codes.getOrDefault(value, UNKNOWN_VALUE);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
@@ -3,50 +3,83 @@ package com.example.housebackend.service;
 import com.example.housebackend.domain.house.House;
 import com.example.housebackend.domain.house.HouseFavorite;
 import com.example.housebackend.domain.house.HouseStatus;
-import com.example.housebackend.domain.user.User;
+import com.example.housebackend.dto.CursorPage;
+import com.example.housebackend.dto.DtoMapper;
+import com.example.housebackend.dto.house.HouseAvailabilityResponse;
+import com.example.housebackend.dto.house.HouseFacetsResponse;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.dto.house.NearbyHouseResponse;
 import com.example.housebackend.exception.AccessDeniedException;
 import com.example.housebackend.exception.BadRequestException;
 import com.example.housebackend.exception.ResourceNotFoundException;
 import com.example.housebackend.repository.HouseFavoriteRepository;
 import com.example.housebackend.repository.HouseRepository;
+import com.example.housebackend.repository.HouseSpecifications;
 import com.example.housebackend.repository.ContactRecordRepository;
+import com.example.housebackend.repository.GeoPointView;
 import com.example.housebackend.repository.RentalOrderRepository;
 import com.example.housebackend.repository.UserRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 @Service
 @RequiredArgsConstructor
 public class HouseService {
 
+    private static final int ID_CHUNK_SIZE = 500;
+    private static final double DEFAULT_RADIUS_METERS = 2_000;
+    private static final double MAX_RADIUS_METERS = 50_000;
+    // 单次附近查询最多参与距离排序的房源数
+    private static final int MAX_GEO_CANDIDATES = 20_000;
+
     private final HouseRepository houseRepository;
     private final HouseFavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
     private final ContactRecordRepository contactRecordRepository;
     private final RentalOrderRepository rentalOrderRepository;
     private final CertificationService certificationService;
-    private final Random random = new Random();
+    private final PublishedHouseSampler publishedHouseSampler;
+    private final HouseAvailabilityIndex availabilityIndex;
+    private final HouseTextIndex textIndex;
+    private final AmenityDictionary amenityDictionary;
+    private final HouseFacetIndex facetIndex;
 
     @Transactional
     public House createHouse(Long ownerId, House house) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new ResourceNotFoundException("房东不存在"));
         if (!certificationService.isCertifiedLandlord(ownerId)) {
             throw new BadRequestException("房东尚未通过认证，无法发布房源");
         }
-        house.setOwner(owner);
+        house.setOwner(userRepository.getReferenceById(ownerId));
         if (house.getDeposit() == null) {
             house.setDeposit(house.getRentPrice());
         }
         house.setStatus(HouseStatus.PUBLISHED);
-        return houseRepository.save(house);
+        assignLocation(house, house.getLatitude(), house.getLongitude());
+        assignAmenities(house, house.getAmenities());
+        House saved = houseRepository.save(house);
+        publishedHouseSampler.statusChanged(saved.getId(), null, saved.getStatus());
+        textIndex.put(saved);
+        facetIndex.put(saved);
+        return saved;
     }
 
     @Transactional
@@ -63,13 +96,18 @@ public class HouseService {
         house.setLayout(incoming.getLayout());
         house.setOrientation(incoming.getOrientation());
         house.setAddress(incoming.getAddress());
+        assignLocation(house, incoming.getLatitude(), incoming.getLongitude());
         house.setAvailableFrom(incoming.getAvailableFrom());
-        house.setAmenities(incoming.getAmenities());
+        assignAmenities(house, incoming.getAmenities());
         house.setRegion(incoming.getRegion());
         house.setSubwayLine(incoming.getSubwayLine());
+        publishedHouseSampler.statusChanged(houseId, house.getStatus(), incoming.getStatus());
         house.setStatus(incoming.getStatus());
         house.replaceMedia(incoming.getMedia());
-        return houseRepository.save(house);
+        House saved = houseRepository.save(house);
+        textIndex.put(saved);
+        facetIndex.put(saved);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -79,8 +117,237 @@ public class HouseService {
     }
 
     @Transactional(readOnly = true)
-    public Page<House> search(Long regionId, Long subwayId, HouseStatus status, Pageable pageable) {
-        return houseRepository.search(regionId, subwayId, status, pageable);
+    public Page<House> search(HouseSearchCriteria criteria, Pageable pageable) {
+        requireCriteria(criteria);
+        Optional<AmenityDictionary.Filter> amenities = amenityDictionary.filterOf(criteria.amenities());
+        if (amenities.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return houseRepository.findAll(HouseSpecifications.matching(criteria, amenities.get().mask(), amenities.get().unindexed()), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<House> searchText(String keyword, HouseSearchCriteria criteria, Pageable pageable) {
+        requireCriteria(criteria);
+        Optional<AmenityDictionary.Filter> amenities = amenityDictionary.filterOf(criteria.amenities());
+        if (amenities.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        List<Long> ranked = withUnindexedAmenities(
+                textIndex.search(keyword, criteria, amenities.get().mask()), amenities.get());
+        if (criteria.availableFrom() != null && !ranked.isEmpty()) {
+            Set<Long> available = new HashSet<>();
+            for (int from = 0; from < ranked.size(); from += ID_CHUNK_SIZE) {
+                List<Long> chunk = ranked.subList(from, Math.min(ranked.size(), from + ID_CHUNK_SIZE));
+                available.addAll(houseRepository.findAvailableIds(chunk, criteria.availableFrom(), criteria.availableTo()));
+            }
+            ranked = ranked.stream().filter(available::contains).toList();
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, Math.min(ranked.size(), from + pageable.getPageSize()));
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ranked.size());
+        }
+        Map<Long, House> houses = houseRepository.findByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(House::getId, Function.identity()));
+        List<House> content = pageIds.stream()
+                .map(houses::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
+    public HouseFacetsResponse facets(String keyword, HouseSearchCriteria criteria) {
+        requireCriteria(criteria);
+        Optional<AmenityDictionary.Filter> amenities = amenityDictionary.filterOf(criteria.amenities());
+        if (amenities.isEmpty()) {
+            return HouseFacetsResponse.empty();
+        }
+        List<Long> matched = StringUtils.hasText(keyword)
+                ? textIndex.search(keyword, criteria, amenities.get().mask())
+                : null;
+        if (!amenities.get().unindexed().isEmpty()) {
+            matched = matched != null
+                    ? withUnindexedAmenities(matched, amenities.get())
+                    : List.copyOf(idsHaving(amenities.get().unindexed()));
+        }
+        return facetIndex.facets(criteria, amenities.get().mask(), matched);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<House> searchAfter(HouseSearchCriteria criteria, String after, int size) {
+        requireCriteria(criteria);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Optional<AmenityDictionary.Filter> amenities = amenityDictionary.filterOf(criteria.amenities());
+        if (amenities.isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+        Specification<House> specification = HouseSpecifications.matching(criteria, amenities.get().mask(), amenities.get().unindexed());
+        if (cursor != null) {
+            specification = specification.and(HouseSpecifications.createdBefore(cursor.createdAt(), cursor.id()));
+        }
+        List<House> houses = houseRepository.findBy(specification, query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(size + 1)
+                .project("owner", "region", "subwayLine", "subwayLine.region")
+                .all());
+        if (houses.size() <= size) {
+            return new CursorPage<>(houses, null, false);
+        }
+        List<House> items = houses.subList(0, size);
+        House last = items.get(size - 1);
+        return new CursorPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getId()).encode(), true);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<NearbyHouseResponse> nearby(HouseSearchCriteria criteria, double latitude, double longitude,
+                                                  Double radiusMeters, String after, int size) {
+        requireCoordinates(latitude, longitude);
+        double radius = radiusMeters != null ? radiusMeters : DEFAULT_RADIUS_METERS;
+        if (!(radius > 0) || radius > MAX_RADIUS_METERS) {
+            throw new BadRequestException("搜索半径需在 0 到 50 公里之间");
+        }
+        double latDelta = GeoHash.metersToLatitudeDegrees(radius);
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+        // 经度跨度按离赤道更远的一侧计算，保证矩形完整包住圆
+        double lngDelta = GeoHash.metersToLongitudeDegrees(radius, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+        double minLng = Math.max(-180, longitude - lngDelta);
+        double maxLng = Math.min(180, longitude + lngDelta);
+        return rankByDistance(criteria, minLat, maxLat, minLng, maxLng, latitude, longitude, radius, after, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<NearbyHouseResponse> withinBox(HouseSearchCriteria criteria, double minLat, double maxLat,
+                                                     double minLng, double maxLng, Double originLat, Double originLng,
+                                                     String after, int size) {
+        requireCoordinates(minLat, minLng);
+        requireCoordinates(maxLat, maxLng);
+        if (maxLat < minLat) {
+            throw new BadRequestException("最大纬度不能小于最小纬度");
+        }
+        if (maxLng < minLng) {
+            throw new BadRequestException("暂不支持跨越 180 度经线的范围");
+        }
+        if ((originLat == null) != (originLng == null)) {
+            throw new BadRequestException("请同时提供经度与纬度");
+        }
+        double latitude = originLat != null ? originLat : (minLat + maxLat) / 2;
+        double longitude = originLng != null ? originLng : (minLng + maxLng) / 2;
+        requireCoordinates(latitude, longitude);
+        return rankByDistance(criteria, minLat, maxLat, minLng, maxLng, latitude, longitude,
+                Double.POSITIVE_INFINITY, after, size);
+    }
+
+    // 用 geohash 前缀圈出候选点，只取坐标列在内存中按距离排序，再按页加载房源
+    private CursorPage<NearbyHouseResponse> rankByDistance(HouseSearchCriteria criteria, double minLat, double maxLat,
+                                                           double minLng, double maxLng, double latitude,
+                                                           double longitude, double radius, String after, int size) {
+        requireCriteria(criteria);
+        DistanceCursor cursor = DistanceCursor.decode(after);
+        Optional<AmenityDictionary.Filter> amenities = amenityDictionary.filterOf(criteria.amenities());
+        if (amenities.isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+        Specification<House> specification = HouseSpecifications.matching(criteria, amenities.get().mask(), amenities.get().unindexed())
+                .and(HouseSpecifications.withinBox(minLat, maxLat, minLng, maxLng,
+                        GeoHash.cover(minLat, maxLat, minLng, maxLng)));
+        List<GeoPointView> points = houseRepository.findBy(specification, query -> query
+                .as(GeoPointView.class)
+                .limit(MAX_GEO_CANDIDATES + 1)
+                .all());
+        if (points.size() > MAX_GEO_CANDIDATES) {
+            throw new BadRequestException("范围内房源过多，请缩小搜索范围");
+        }
+        List<DistanceCursor> ranked = new ArrayList<>();
+        for (GeoPointView point : points) {
+            double distance = GeoHash.distanceMeters(latitude, longitude, point.getLatitude(), point.getLongitude());
+            if (distance <= radius && (cursor == null || cursor.precedes(distance, point.getId()))) {
+                ranked.add(new DistanceCursor(distance, point.getId()));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(DistanceCursor::distance).thenComparing(DistanceCursor::id));
+        boolean hasNext = ranked.size() > size;
+        List<DistanceCursor> page = hasNext ? ranked.subList(0, size) : ranked;
+        if (page.isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+        Map<Long, House> houses = houseRepository.findByIdIn(page.stream().map(DistanceCursor::id).toList()).stream()
+                .collect(Collectors.toMap(House::getId, Function.identity()));
+        List<NearbyHouseResponse> items = page.stream()
+                .filter(entry -> houses.containsKey(entry.id()))
+                .map(entry -> new NearbyHouseResponse(DtoMapper.toHouse(houses.get(entry.id())), entry.distance()))
+                .toList();
+        return new CursorPage<>(items, hasNext ? page.get(size - 1).encode() : null, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public HouseAvailabilityResponse availability(Long houseId, LocalDate from, LocalDate to) {
+        if (!houseRepository.existsById(houseId)) {
+            throw new ResourceNotFoundException("房源不存在");
+        }
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(180);
+        if (end.isBefore(start)) {
+            throw new BadRequestException("结束日期不能早于开始日期");
+        }
+        return new HouseAvailabilityResponse(houseId, start, end, availabilityIndex.bookedBetween(houseId, start, end));
+    }
+
+    // 内存索引只认位图，字典已满后出现的配套再按 house_amenities 过滤一次
+    private List<Long> withUnindexedAmenities(List<Long> ids, AmenityDictionary.Filter amenities) {
+        if (amenities.unindexed().isEmpty() || ids.isEmpty()) {
+            return ids;
+        }
+        Set<Long> having = idsHaving(amenities.unindexed());
+        return ids.stream().filter(having::contains).toList();
+    }
+
+    private Set<Long> idsHaving(Set<String> amenities) {
+        return new HashSet<>(houseRepository.findIdsHavingAmenities(amenities, amenities.size()));
+    }
+
+    private void assignAmenities(House house, Set<String> amenities) {
+        house.setAmenities(AmenityDictionary.requireValid(amenities));
+        house.setAmenityMask(amenityDictionary.register(house.getAmenities()));
+    }
+
+    private void assignLocation(House house, Double latitude, Double longitude) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new BadRequestException("请同时提供经度与纬度");
+        }
+        if (latitude != null) {
+            requireCoordinates(latitude, longitude);
+        }
+        house.setLatitude(latitude);
+        house.setLongitude(longitude);
+        house.setGeohash(latitude != null ? GeoHash.encode(latitude, longitude) : null);
+    }
+
+    private void requireCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new BadRequestException("经纬度超出范围");
+        }
+    }
+
+    private void requireCriteria(HouseSearchCriteria criteria) {
+        if (criteria.minPrice() != null && criteria.maxPrice() != null
+                && criteria.maxPrice().compareTo(criteria.minPrice()) < 0) {
+            throw new BadRequestException("最高租金不能低于最低租金");
+        }
+        if (criteria.minArea() != null && criteria.maxArea() != null && criteria.maxArea() < criteria.minArea()) {
+            throw new BadRequestException("最大面积不能小于最小面积");
+        }
+        requireStayRange(criteria.availableFrom(), criteria.availableTo());
+    }
+
+    private void requireStayRange(LocalDate availableFrom, LocalDate availableTo) {
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new BadRequestException("请同时提供入住与退租日期");
+        }
+        if (availableFrom != null && availableTo.isBefore(availableFrom)) {
+            throw new BadRequestException("退租日期不能早于入住日期");
+        }
     }
 
     @Transactional(readOnly = true)
@@ -108,20 +375,26 @@ public class HouseService {
     @Transactional
     public House updateStatus(Long houseId, HouseStatus status) {
         House house = requireHouse(houseId);
+        publishedHouseSampler.statusChanged(houseId, house.getStatus(), status);
         house.setStatus(status);
-        return houseRepository.save(house);
+        House saved = houseRepository.save(house);
+        textIndex.put(saved);
+        facetIndex.put(saved);
+        return saved;
     }
 
     @Transactional(readOnly = true)
     public List<House> randomRecommended(int size) {
-        List<House> candidates = houseRepository.findAll();
-        if (candidates.isEmpty()) {
+        List<Long> pickedIds = publishedHouseSampler.sample(size);
+        if (pickedIds.isEmpty()) {
             return Collections.emptyList();
         }
-        return random.ints(0, candidates.size())
-                .distinct()
-                .limit(Math.min(size, candidates.size()))
-                .mapToObj(candidates::get)
+        Map<Long, House> houses = houseRepository.findByIdIn(pickedIds).stream()
+                .filter(house -> house.getStatus() == HouseStatus.PUBLISHED)
+                .collect(Collectors.toMap(House::getId, Function.identity()));
+        return pickedIds.stream()
+                .map(houses::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -163,5 +436,8 @@ public class HouseService {
         contactRecordRepository.deleteByHouseId(houseId);
         favoriteRepository.deleteByHouseId(houseId);
         houseRepository.delete(house);
+        publishedHouseSampler.statusChanged(houseId, house.getStatus(), null);
+        textIndex.remove(houseId);
+        facetIndex.remove(houseId);
     }
 }
@@ -0,0 +1,325 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.domain.location.Region;
+import com.example.housebackend.domain.location.SubwayLine;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.repository.HouseAmenityView;
+import com.example.housebackend.repository.HouseRepository;
+import com.example.housebackend.repository.HouseTextView;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+@Slf4j
+@Component
+public class HouseTextIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int REBUILD_CHUNK_SIZE = 1_000;
+
+    private final HouseRepository houseRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private Map<Long, IndexedHouse> houses = new HashMap<>();
+    private long totalLength;
+    private List<Map.Entry<Long, IndexedHouse>> replay;
+
+    public HouseTextIndex(HouseRepository houseRepository) {
+        this.houseRepository = houseRepository;
+    }
+
+    // 汉字按相邻两字切分，字母数字按整词切分，统一转为小写半角
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (!StringUtils.hasText(text)) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+        StringBuilder word = new StringBuilder();
+        StringBuilder han = new StringBuilder();
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN) {
+                flushWord(word, tokens);
+                han.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushHan(han, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushHan(han, tokens);
+            }
+        }
+        flushWord(word, tokens);
+        flushHan(han, tokens);
+        return tokens;
+    }
+
+    public void put(House house) {
+        IndexedHouse indexed = toIndexed(house.getId(), house);
+        afterCommit(() -> apply(indexed.id(), indexed));
+    }
+
+    public void remove(Long houseId) {
+        afterCommit(() -> apply(houseId, null));
+    }
+
+    public List<Long> search(String keyword, HouseSearchCriteria criteria, long amenityMask) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(keyword));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documents = houses.size();
+            double averageLength = documents == 0 ? 1 : Math.max(1, (double) totalLength / documents);
+            for (String term : terms) {
+                Map<Long, Integer> hits = postings.get(term);
+                if (hits == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents - hits.size() + 0.5) / (hits.size() + 0.5));
+                for (Map.Entry<Long, Integer> hit : hits.entrySet()) {
+                    IndexedHouse house = houses.get(hit.getKey());
+                    if (!house.matches(criteria, amenityMask)) {
+                        continue;
+                    }
+                    int tf = hit.getValue();
+                    double norm = K1 * (1 - B + B * house.length() / averageLength);
+                    scores.merge(house.id(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return houses.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.house.text-index.rebuild-interval:PT30M}",
+            fixedDelayString = "${app.house.text-index.rebuild-interval:PT30M}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<String, Map<Long, Integer>> freshPostings = new HashMap<>();
+        Map<Long, IndexedHouse> freshHouses = new HashMap<>();
+        long[] freshLength = new long[1];
+        try {
+            // 按主键游标读取投影，不做 count，也不把实体留在持久化上下文里
+            long after = 0;
+            while (true) {
+                List<HouseTextView> rows = houseRepository.findTextRows(after, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = rows.stream().map(HouseTextView::getId).toList();
+                Map<Long, List<String>> amenities = new HashMap<>();
+                for (HouseAmenityView view : houseRepository.findAmenities(ids)) {
+                    amenities.computeIfAbsent(view.getHouseId(), key -> new ArrayList<>()).add(view.getAmenity());
+                }
+                for (HouseTextView row : rows) {
+                    IndexedHouse indexed = index(row.getId(), row.getRegionId(), row.getSubwayLineId(), row.getStatus(),
+                            row.getRentPrice(), row.getArea(), row.getLayout(), row.getAvailableFrom(),
+                            row.getAmenityMask(), row.getTitle(), row.getDescription(), row.getAddress(),
+                            amenities.getOrDefault(row.getId(), List.of()));
+                    freshHouses.put(indexed.id(), indexed);
+                    freshLength[0] += indexed.length();
+                    indexed.terms().forEach((term, tf) ->
+                            freshPostings.computeIfAbsent(term, key -> new HashMap<>()).put(indexed.id(), tf));
+                }
+                if (rows.size() < REBUILD_CHUNK_SIZE) {
+                    break;
+                }
+                after = rows.get(rows.size() - 1).getId();
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("房源全文索引重建失败，继续使用现有索引", ex);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Map.Entry<Long, IndexedHouse>> missed = replay;
+            replay = null;
+            postings = freshPostings;
+            houses = freshHouses;
+            totalLength = freshLength[0];
+            // 重建期间提交的变更按提交顺序重放到新索引
+            missed.forEach(change -> apply(change.getKey(), change.getValue()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("房源全文索引已重建：{} 套房源，{} 个词项，用时 {} ms", freshHouses.size(), freshPostings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void apply(Long houseId, IndexedHouse replacement) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                replay.add(new AbstractMap.SimpleImmutableEntry<>(houseId, replacement));
+            }
+            IndexedHouse previous = houses.remove(houseId);
+            if (previous != null) {
+                totalLength -= previous.length();
+                for (String term : previous.terms().keySet()) {
+                    Map<Long, Integer> hits = postings.get(term);
+                    if (hits != null) {
+                        hits.remove(houseId);
+                        if (hits.isEmpty()) {
+                            postings.remove(term);
+                        }
+                    }
+                }
+            }
+            if (replacement != null) {
+                houses.put(houseId, replacement);
+                totalLength += replacement.length();
+                replacement.terms().forEach((term, tf) ->
+                        postings.computeIfAbsent(term, key -> new HashMap<>()).put(houseId, tf));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static IndexedHouse toIndexed(Long id, House house) {
+        return index(id, regionId(house.getRegion()), subwayLineId(house.getSubwayLine()), house.getStatus(),
+                house.getRentPrice(), house.getArea(), house.getLayout(), house.getAvailableFrom(),
+                house.getAmenityMask(), house.getTitle(), house.getDescription(), house.getAddress(),
+                house.getAmenities() != null ? house.getAmenities() : List.of());
+    }
+
+    private static IndexedHouse index(Long id, Long regionId, Long subwayLineId, HouseStatus status,
+                                      BigDecimal rentPrice, Double area, String layout, LocalDate availableFrom,
+                                      long amenityMask, String title, String description, String address,
+                                      Collection<String> amenities) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : tokenize(title)) {
+            terms.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        List<String> body = new ArrayList<>(tokenize(description));
+        body.addAll(tokenize(address));
+        amenities.forEach(amenity -> body.addAll(tokenize(amenity)));
+        for (String token : body) {
+            terms.merge(token, 1, Integer::sum);
+        }
+        int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+        return new IndexedHouse(id, regionId, subwayLineId, status, rentPrice, area, layout, availableFrom,
+                amenityMask, length, terms);
+    }
+
+    private static Long regionId(Region region) {
+        return region != null ? region.getId() : null;
+    }
+
+    private static Long subwayLineId(SubwayLine subwayLine) {
+        return subwayLine != null ? subwayLine.getId() : null;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushHan(StringBuilder han, List<String> tokens) {
+        if (han.isEmpty()) {
+            return;
+        }
+        int[] chars = han.codePoints().toArray();
+        if (chars.length == 1) {
+            tokens.add(new String(chars, 0, 1));
+        }
+        for (int i = 0; i + 1 < chars.length; i++) {
+            tokens.add(new String(chars, i, 2));
+        }
+        han.setLength(0);
+    }
+
+    record IndexedHouse(Long id, Long regionId, Long subwayLineId, HouseStatus status, BigDecimal rentPrice,
+                        Double area, String layout, LocalDate availableFrom, long amenityMask, int length,
+                        Map<String, Integer> terms) {
+
+        // 与 HouseSpecifications.matching 保持同样的语义，可租日期由调用方再查订单
+        boolean matches(HouseSearchCriteria criteria, long amenityMask) {
+            return (criteria.regionId() == null || criteria.regionId().equals(regionId))
+                    && (criteria.subwayId() == null || criteria.subwayId().equals(subwayLineId))
+                    && (criteria.status() == null || criteria.status() == status)
+                    && (criteria.minPrice() == null || rentPrice != null && rentPrice.compareTo(criteria.minPrice()) >= 0)
+                    && (criteria.maxPrice() == null || rentPrice != null && rentPrice.compareTo(criteria.maxPrice()) <= 0)
+                    && (criteria.minArea() == null || area != null && area >= criteria.minArea())
+                    && (criteria.maxArea() == null || area != null && area <= criteria.maxArea())
+                    && (!StringUtils.hasText(criteria.layout()) || criteria.layout().trim().equals(layout))
+                    && (this.amenityMask & amenityMask) == amenityMask
+                    && (criteria.moveInBy() == null || availableFrom == null || !availableFrom.isAfter(criteria.moveInBy()));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.util.StringUtils;
+
+public record KeysetCursor(Instant createdAt, Long id) {
+
+    private static final String VERSION = "k1";
+
+    public String encode() {
+        String raw = VERSION + ":" + createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("无效的分页游标");
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            return new KeysetCursor(createdAt, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new BadRequestException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.dto.metrics.WriteBehindMetrics;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LastLoginWriter {
+
+    private static final String UPDATE_SQL =
+            "update users set last_login_at = ? where id = ? and (last_login_at is null or last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final ConcurrentHashMap<Long, Instant> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean closed;
+
+    public LastLoginWriter(JdbcTemplate jdbcTemplate,
+                           @Value("${app.auth.last-login.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void record(Long userId, Instant loginAt) {
+        pending.merge(userId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+        recorded.increment();
+        if (closed) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.last-login.flush-interval:PT10S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Map.Entry<Long, Instant>> batch = new ArrayList<>(batchSize);
+            for (Long userId : pending.keySet()) {
+                Instant loginAt = pending.remove(userId);
+                if (loginAt == null) {
+                    continue;
+                }
+                batch.add(Map.entry(userId, loginAt));
+                if (batch.size() == batchSize) {
+                    if (!write(batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public WriteBehindMetrics metrics() {
+        return new WriteBehindMetrics(
+                pending.size(),
+                recorded.sum(),
+                flushedRows.sum(),
+                batches.sum(),
+                failures.sum());
+    }
+
+    @PreDestroy
+    void close() {
+        closed = true;
+        flush();
+    }
+
+    private boolean write(List<Map.Entry<Long, Instant>> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+                Timestamp loginAt = Timestamp.from(entry.getValue());
+                ps.setTimestamp(1, loginAt);
+                ps.setLong(2, entry.getKey());
+                ps.setTimestamp(3, loginAt);
+            });
+            batches.increment();
+            flushedRows.add(batch.size());
+            return true;
+        } catch (RuntimeException ex) {
+            failures.increment();
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(),
+                    (current, failed) -> failed.isAfter(current) ? failed : current));
+            log.warn("最近登录时间批量写入失败，{} 条记录将在下次刷新时重试", batch.size(), ex);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.dto.metrics.HistogramSnapshot;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000L;
+        int index = 0;
+        while (index < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public HistogramSnapshot snapshot() {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        long lower = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            distribution.put(lower + "-" + BOUNDS_MILLIS[i] + "ms", buckets[i].sum());
+            lower = BOUNDS_MILLIS[i];
+        }
+        distribution.put(">" + lower + "ms", buckets[BOUNDS_MILLIS.length].sum());
+        long samples = count.sum();
+        return new HistogramSnapshot(
+                samples,
+                samples == 0 ? 0D : totalNanos.sum() / 1_000_000D / samples,
+                maxNanos.get() / 1_000_000L,
+                distribution);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.dto.metrics.LifecycleMetrics;
+import com.example.housebackend.dto.order.OrderLifecycleEvent;
+import com.example.housebackend.repository.DueOrderView;
+import com.example.housebackend.repository.RentalOrderRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class OrderLifecycleScheduler {
+
+    static final String LEASE_NAME = "order-lifecycle";
+
+    private final RentalOrderRepository rentalOrderRepository;
+    private final SchedulerLeaseService leaseService;
+    private final StatisticsRollupService rollupService;
+    private final AdminStatsPublisher statsPublisher;
+    private final HouseAvailabilityIndex availabilityIndex;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration leaseTtl;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder activated = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastDurationMillis;
+    private volatile Instant lastRunAt;
+
+    public OrderLifecycleScheduler(RentalOrderRepository rentalOrderRepository,
+                                   SchedulerLeaseService leaseService,
+                                   StatisticsRollupService rollupService,
+                                   AdminStatsPublisher statsPublisher,
+                                   HouseAvailabilityIndex availabilityIndex,
+                                   SimpMessagingTemplate messagingTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.orders.lifecycle.batch-size:200}") int batchSize,
+                                   @Value("${app.orders.lifecycle.max-batches:50}") int maxBatches,
+                                   @Value("${app.orders.lifecycle.lease-ttl:PT2M}") Duration leaseTtl) {
+        this.rentalOrderRepository = rentalOrderRepository;
+        this.leaseService = leaseService;
+        this.rollupService = rollupService;
+        this.statsPublisher = statsPublisher;
+        this.availabilityIndex = availabilityIndex;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.leaseTtl = leaseTtl;
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.lifecycle.initial-delay:PT30S}",
+            fixedDelayString = "${app.orders.lifecycle.interval:PT5M}")
+    public long run() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long moved = 0;
+        boolean leased = false;
+        try {
+            leased = leaseService.tryAcquire(LEASE_NAME, leaseTtl);
+            if (!leased) {
+                skipped.increment();
+                return 0;
+            }
+            LocalDate today = LocalDate.now(rollupService.zoneId());
+            long expiredNow = drain(RentalOrderStatus.PENDING, RentalOrderStatus.CANCELLED,
+                    page -> rentalOrderRepository.findStartingBy(RentalOrderStatus.PENDING, today.minusDays(1), page));
+            expired.add(expiredNow);
+            long activatedNow = drain(RentalOrderStatus.CONFIRMED, RentalOrderStatus.ACTIVE,
+                    page -> rentalOrderRepository.findStartingBy(RentalOrderStatus.CONFIRMED, today, page));
+            activated.add(activatedNow);
+            long completedNow = drain(RentalOrderStatus.ACTIVE, RentalOrderStatus.COMPLETED,
+                    page -> rentalOrderRepository.findEndedBefore(RentalOrderStatus.ACTIVE, today, page));
+            completed.add(completedNow);
+            moved = expiredNow + activatedNow + completedNow;
+            if (moved > 0) {
+                log.info("订单状态自动流转完成：过期 {} 条，生效 {} 条，完成 {} 条", expiredNow, activatedNow, completedNow);
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("订单状态自动流转失败，已处理 {} 条，剩余部分将在下次执行时继续", moved, ex);
+        } finally {
+            if (leased) {
+                leaseService.release(LEASE_NAME);
+                runs.increment();
+                lastDurationMillis = (System.nanoTime() - start) / 1_000_000;
+                lastRunAt = Instant.now();
+            }
+            running.set(false);
+        }
+        return moved;
+    }
+
+    public LifecycleMetrics metrics() {
+        return new LifecycleMetrics(
+                runs.sum(),
+                skipped.sum(),
+                activated.sum(),
+                completed.sum(),
+                expired.sum(),
+                lastDurationMillis,
+                lastRunAt,
+                failures.sum(),
+                leaseService.owner());
+    }
+
+    private long drain(RentalOrderStatus from, RentalOrderStatus to, DueOrderFinder finder) {
+        long moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            // 每批之前续期，包括每个阶段的第一批；租约一旦丢失，后续阶段也不再执行
+            if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                log.warn("调度租约 {} 已被其他节点接管，停止本轮处理", LEASE_NAME);
+                break;
+            }
+            List<DueOrderView> due = finder.find(PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            Integer updated = transactionTemplate.execute(status -> apply(due, from, to));
+            moved += updated == null ? 0 : updated;
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    private int apply(List<DueOrderView> due, RentalOrderStatus from, RentalOrderStatus to) {
+        List<Long> ids = due.stream().map(DueOrderView::getId).toList();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = to == RentalOrderStatus.CANCELLED
+                ? rentalOrderRepository.expirePending(ids, now)
+                : rentalOrderRepository.transition(ids, from, to, now);
+        if (updated == 0) {
+            return 0;
+        }
+        Set<Long> moved = updated == ids.size()
+                ? null
+                : new HashSet<>(rentalOrderRepository.findIdsTransitionedAt(ids, to, now));
+        // 批量更新绕过实体监听器，汇总增量在同一事务内按下单日期合并补写
+        Map<LocalDate, Long> perDay = new TreeMap<>();
+        for (DueOrderView order : due) {
+            if (moved == null || moved.contains(order.getId())) {
+                perDay.merge(order.getCreatedAt().atZone(rollupService.zoneId()).toLocalDate(), 1L, Long::sum);
+            }
+        }
+        perDay.forEach((day, count) -> {
+            Instant createdAt = day.atStartOfDay(rollupService.zoneId()).toInstant();
+            rollupService.orderChanged(createdAt, from, -count);
+            rollupService.orderChanged(createdAt, to, count);
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(due, moved, from, to, now);
+            }
+        });
+        return updated;
+    }
+
+    private void publish(List<DueOrderView> due, Set<Long> moved, RentalOrderStatus from,
+                         RentalOrderStatus to, Instant at) {
+        Set<Long> houses = new HashSet<>();
+        for (DueOrderView order : due) {
+            if (moved != null && !moved.contains(order.getId())) {
+                continue;
+            }
+            statsPublisher.statusChanged("orders", from, to);
+            houses.add(order.getHouseId());
+            OrderLifecycleEvent event = new OrderLifecycleEvent(order.getId(), order.getHouseId(), from, to, at);
+            messagingTemplate.convertAndSend("/topic/users/" + order.getTenantId(), event);
+            messagingTemplate.convertAndSend("/topic/users/" + order.getLandlordId(), event);
+        }
+        if (HouseAvailabilityIndex.BOOKED_STATUSES.contains(from) != HouseAvailabilityIndex.BOOKED_STATUSES.contains(to)) {
+            houses.forEach(availabilityIndex::evict);
+        }
+    }
+
+    @FunctionalInterface
+    private interface DueOrderFinder {
+        List<DueOrderView> find(Pageable page);
+    }
+}
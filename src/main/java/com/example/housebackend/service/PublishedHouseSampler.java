@@ -0,0 +1,114 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.repository.HouseRepository;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class PublishedHouseSampler {
+
+    private final HouseRepository houseRepository;
+    private final long maxAgeNanos;
+    private volatile long[] ids;
+    private volatile long loadedAt;
+
+    public PublishedHouseSampler(HouseRepository houseRepository,
+                                 @Value("${app.house.random.max-age:PT5M}") Duration maxAge) {
+        this.houseRepository = houseRepository;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public List<Long> sample(int size) {
+        long[] snapshot = ids;
+        if (snapshot == null) {
+            snapshot = refresh();
+        }
+        int count = Math.min(Math.max(size, 0), snapshot.length);
+        List<Long> picked = new ArrayList<>(count);
+        if (count == 0) {
+            return picked;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> seen = new HashSet<>();
+        for (int j = snapshot.length - count; j < snapshot.length; j++) {
+            int index = random.nextInt(j + 1);
+            if (!seen.add(index)) {
+                index = j;
+                seen.add(j);
+            }
+            picked.add(snapshot[index]);
+        }
+        return picked;
+    }
+
+    // 只有进出 PUBLISHED 的变更才需要同步，提交后增删单个 ID，不再整表重载
+    public void statusChanged(Long houseId, HouseStatus before, HouseStatus after) {
+        boolean wasPublished = before == HouseStatus.PUBLISHED;
+        boolean published = after == HouseStatus.PUBLISHED;
+        if (houseId == null || wasPublished == published) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(houseId, published);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(houseId, published);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.house.random.check-interval:PT5S}")
+    public void refreshIfNeeded() {
+        if (ids == null || System.nanoTime() - loadedAt > maxAgeNanos) {
+            refresh();
+        }
+    }
+
+    synchronized long[] refresh() {
+        long[] loaded = houseRepository.findIdsByStatus(HouseStatus.PUBLISHED).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        loadedAt = System.nanoTime();
+        ids = loaded;
+        return loaded;
+    }
+
+    // 与 refresh 互斥：重载期间提交的变更会在重载完成后叠加，增删都是幂等的
+    private synchronized void apply(long houseId, boolean published) {
+        long[] current = ids;
+        if (current == null) {
+            return;
+        }
+        int index = -1;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == houseId) {
+                index = i;
+                break;
+            }
+        }
+        if (published && index < 0) {
+            long[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = houseId;
+            ids = next;
+        } else if (!published && index >= 0) {
+            long[] next = new long[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            ids = next;
+        }
+    }
+}
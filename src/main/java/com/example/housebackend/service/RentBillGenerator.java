@@ -0,0 +1,195 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.billing.RentBillStatus;
+import com.example.housebackend.dto.bill.BillingRunResponse;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class RentBillGenerator {
+
+    static final String LEASE_NAME = "rent-bills";
+
+    // 租期与账单月有交集、实际生效过的订单，反连接跳过已出账的订单，已完成的月份可安全地重新扫描
+    private static final String SELECT_ORDERS = """
+            select o.id, o.house_id, o.tenant_id, o.landlord_id, o.monthly_rent
+            from rental_orders o
+            where o.id > ? and o.status in ('ACTIVE', 'COMPLETED') and o.monthly_rent is not null
+              and o.start_date <= ? and o.end_date >= ?
+              and not exists (select 1 from rent_bills b where b.order_id = o.id and b.billing_month = ?)
+            order by o.id
+            limit ?
+            """;
+    private static final String INSERT_BILL = """
+            insert into rent_bills (order_id, house_id, tenant_id, landlord_id, billing_month, amount, due_date,
+                                    status, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService leaseService;
+    private final StatisticsRollupService rollupService;
+    private final int chunkSize;
+    private final int dueDay;
+    private final Duration leaseTtl;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RentBillGenerator(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             SchedulerLeaseService leaseService,
+                             StatisticsRollupService rollupService,
+                             @Value("${app.billing.chunk-size:1000}") int chunkSize,
+                             @Value("${app.billing.due-day:5}") int dueDay,
+                             @Value("${app.billing.lease-ttl:PT2M}") Duration leaseTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseService = leaseService;
+        this.rollupService = rollupService;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.dueDay = Math.max(1, Math.min(dueDay, 28));
+        this.leaseTtl = leaseTtl;
+    }
+
+    @Scheduled(cron = "${app.billing.cron:0 0 2 * * *}")
+    public void generateCurrentMonth() {
+        generate(currentMonth());
+    }
+
+    public YearMonth currentMonth() {
+        return YearMonth.now(rollupService.zoneId());
+    }
+
+    // 从检查点继续生成指定月份的账单，每个分块的账单插入与检查点推进在同一事务中提交；
+    // 月份已完成时从头补扫一遍，给月中才生效的订单补出当月账单
+    public BillingRunResponse generate(YearMonth month) {
+        String billingMonth = month.toString();
+        if (!running.compareAndSet(false, true)) {
+            return new BillingRunResponse(billingMonth, false, false, 0, 0, 0, 0);
+        }
+        long start = System.nanoTime();
+        boolean leased = false;
+        long generated = 0;
+        try {
+            leased = leaseService.tryAcquire(LEASE_NAME, leaseTtl);
+            if (!leased) {
+                return new BillingRunResponse(billingMonth, false, false, 0, 0, 0, 0);
+            }
+            String jobName = LEASE_NAME + ":" + billingMonth;
+            Map<String, Object> checkpoint = loadCheckpoint(jobName);
+            long lastId = ((Number) checkpoint.get("last_id")).longValue();
+            long processed = ((Number) checkpoint.get("processed")).longValue();
+            boolean completed = checkpoint.get("completed_at") != null;
+            boolean catchUp = completed;
+            long cursor = catchUp ? 0 : lastId;
+            Date periodStart = Date.valueOf(month.atDay(1));
+            Date periodEnd = Date.valueOf(month.atEndOfMonth());
+            Date dueDate = Date.valueOf(month.atDay(dueDay));
+            while (catchUp || !completed) {
+                if (generated > 0 && !leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                    log.warn("调度租约 {} 已被其他节点接管，账单生成将在下次执行时继续", LEASE_NAME);
+                    break;
+                }
+                List<Object[]> rows = jdbcTemplate.query(SELECT_ORDERS, (rs, rowNum) -> new Object[]{
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getBigDecimal(5)},
+                        cursor, periodEnd, periodStart, billingMonth, chunkSize);
+                boolean last = rows.size() < chunkSize;
+                long nextId = rows.isEmpty() ? cursor : (Long) rows.get(rows.size() - 1)[0];
+                if (catchUp) {
+                    if (!rows.isEmpty()) {
+                        transactionTemplate.executeWithoutResult(status ->
+                                writeCatchUp(jobName, billingMonth, dueDate, rows));
+                    }
+                    catchUp = !last;
+                } else {
+                    long previousId = lastId;
+                    transactionTemplate.executeWithoutResult(status ->
+                            writeChunk(jobName, billingMonth, dueDate, rows, previousId, nextId, last));
+                    lastId = nextId;
+                    completed = last;
+                }
+                generated += rows.size();
+                processed += rows.size();
+                cursor = nextId;
+            }
+            if (generated > 0) {
+                log.info("{} 月账单生成 {} 条，累计 {} 条", billingMonth, generated, processed);
+            }
+            return new BillingRunResponse(billingMonth, true, completed, generated, processed, lastId,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            if (leased) {
+                leaseService.release(LEASE_NAME);
+            }
+            running.set(false);
+        }
+    }
+
+    private Map<String, Object> loadCheckpoint(String jobName) {
+        try {
+            jdbcTemplate.update("insert into batch_checkpoints (job_name, last_id, processed, updated_at) values (?, 0, 0, ?)",
+                    jobName, Timestamp.from(Instant.now()));
+        } catch (DuplicateKeyException ex) {
+            // 已有检查点，从上次位置继续
+        }
+        return jdbcTemplate.queryForMap(
+                "select last_id, processed, completed_at from batch_checkpoints where job_name = ?", jobName);
+    }
+
+    private void writeChunk(String jobName, String billingMonth, Date dueDate, List<Object[]> orders,
+                            long previousId, long nextId, boolean last) {
+        Timestamp now = Timestamp.from(Instant.now());
+        insertBills(billingMonth, dueDate, orders, now);
+        int advanced = jdbcTemplate.update("""
+                        update batch_checkpoints
+                        set last_id = ?, processed = processed + ?, completed_at = ?, updated_at = ?
+                        where job_name = ? and last_id = ?
+                        """,
+                nextId, orders.size(), last ? now : null, now, jobName, previousId);
+        if (advanced == 0) {
+            throw new IllegalStateException("账单检查点已被其他任务推进");
+        }
+    }
+
+    // 补扫不移动检查点，只累计处理数；唯一键 (order_id, billing_month) 兜底防止重复出账
+    private void writeCatchUp(String jobName, String billingMonth, Date dueDate, List<Object[]> orders) {
+        Timestamp now = Timestamp.from(Instant.now());
+        insertBills(billingMonth, dueDate, orders, now);
+        jdbcTemplate.update("update batch_checkpoints set processed = processed + ?, updated_at = ? where job_name = ?",
+                orders.size(), now, jobName);
+    }
+
+    private void insertBills(String billingMonth, Date dueDate, List<Object[]> orders, Timestamp now) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_BILL, orders, orders.size(), (ps, order) -> {
+            ps.setLong(1, (Long) order[0]);
+            ps.setLong(2, (Long) order[1]);
+            ps.setLong(3, (Long) order[2]);
+            ps.setLong(4, (Long) order[3]);
+            ps.setString(5, billingMonth);
+            ps.setBigDecimal(6, (BigDecimal) order[4]);
+            ps.setDate(7, dueDate);
+            ps.setString(8, RentBillStatus.UNPAID.name());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+}
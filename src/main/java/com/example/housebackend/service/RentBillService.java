@@ -0,0 +1,67 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.billing.RentBill;
+import com.example.housebackend.domain.billing.RentBillStatus;
+import com.example.housebackend.dto.CursorPage;
+import com.example.housebackend.exception.AccessDeniedException;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.exception.ResourceNotFoundException;
+import com.example.housebackend.repository.RentBillRepository;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class RentBillService {
+
+    private final RentBillRepository rentBillRepository;
+
+    @Transactional(readOnly = true)
+    public CursorPage<RentBill> listForTenant(Long tenantId, String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<RentBill> bills = cursor == null
+                ? rentBillRepository.findTenantFirst(tenantId, limit)
+                : rentBillRepository.findTenantAfter(tenantId, cursor.createdAt(), cursor.id(), limit);
+        return slice(bills, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<RentBill> listForLandlord(Long landlordId, String after, int size) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<RentBill> bills = cursor == null
+                ? rentBillRepository.findLandlordFirst(landlordId, limit)
+                : rentBillRepository.findLandlordAfter(landlordId, cursor.createdAt(), cursor.id(), limit);
+        return slice(bills, size);
+    }
+
+    @Transactional
+    public RentBill markPaid(Long landlordId, Long billId) {
+        RentBill bill = rentBillRepository.findById(billId)
+                .orElseThrow(() -> new ResourceNotFoundException("账单不存在"));
+        if (!bill.getLandlord().getId().equals(landlordId)) {
+            throw new AccessDeniedException("无权操作该账单");
+        }
+        if (bill.getStatus() == RentBillStatus.PAID) {
+            throw new BadRequestException("账单已支付");
+        }
+        bill.setStatus(RentBillStatus.PAID);
+        bill.setPaidAt(Instant.now());
+        return rentBillRepository.save(bill);
+    }
+
+    private CursorPage<RentBill> slice(List<RentBill> bills, int size) {
+        if (bills.size() <= size) {
+            return new CursorPage<>(bills, null, false);
+        }
+        List<RentBill> items = bills.subList(0, size);
+        RentBill last = items.get(size - 1);
+        return new CursorPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getId()).encode(), true);
+    }
+}
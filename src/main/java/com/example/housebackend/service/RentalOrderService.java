@@ -1,11 +1,12 @@
 package com.example.housebackend.service;
 
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.domain.house.House;
 import com.example.housebackend.domain.order.OrderTerminationStatus;
 import com.example.housebackend.domain.order.RentalOrder;
 import com.example.housebackend.domain.order.RentalOrderStatus;
-import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.dto.order.RentalOrderResponse;
 import com.example.housebackend.exception.AccessDeniedException;
 import com.example.housebackend.exception.BadRequestException;
 import com.example.housebackend.exception.ResourceNotFoundException;
@@ -14,7 +15,6 @@ import com.example.housebackend.repository.RentalOrderRepository;
 import com.example.housebackend.repository.UserRepository;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +28,8 @@ public class RentalOrderService {
     private final RentalOrderRepository rentalOrderRepository;
     private final HouseRepository houseRepository;
     private final UserRepository userRepository;
+    private final HouseAvailabilityIndex availabilityIndex;
+    private final HouseBookingLocks bookingLocks;
 
     @Transactional
     public RentalOrder createOrder(Long tenantId,
@@ -45,14 +47,7 @@ public class RentalOrderService {
         if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
             throw new BadRequestException("租赁结束时间不能早于开始时间");
         }
-        boolean hasOverlap = rentalOrderRepository.hasOverlappingOrders(
-                houseId,
-                startDate,
-                endDate,
-                List.of(RentalOrderStatus.CONFIRMED, RentalOrderStatus.ACTIVE));
-        if (hasOverlap) {
-            throw new BadRequestException("该房源在所选日期已被预订");
-        }
+        ensureAvailable(houseId, startDate, endDate, null);
         RentalOrder order = new RentalOrder();
         order.setHouse(house);
         order.setTenant(userRepository.getReferenceById(tenantId));
@@ -72,18 +67,18 @@ public class RentalOrderService {
     }
 
     @Transactional(readOnly = true)
-    public Page<RentalOrder> listForTenant(Long tenantId, Pageable pageable) {
-        return rentalOrderRepository.findByTenantId(tenantId, pageable);
+    public Page<RentalOrderResponse> listForTenant(Long tenantId, Pageable pageable) {
+        return rentalOrderRepository.findResponsesByTenantId(tenantId, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<RentalOrder> listForLandlord(Long landlordId, Pageable pageable) {
-        return rentalOrderRepository.findByLandlordId(landlordId, pageable);
+    public Page<RentalOrderResponse> listForLandlord(Long landlordId, Pageable pageable) {
+        return rentalOrderRepository.findResponsesByLandlordId(landlordId, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<RentalOrder> listForAdmin(Pageable pageable) {
-        return rentalOrderRepository.findAll(pageable);
+    public Page<RentalOrderResponse> listForAdmin(Pageable pageable) {
+        return rentalOrderRepository.findAllResponses(pageable);
     }
 
     @Transactional
@@ -104,6 +99,7 @@ public class RentalOrderService {
     public RentalOrder confirmOrder(Long landlordId, Long orderId) {
         RentalOrder order = getOrder(orderId);
         requireLandlordAccess(landlordId, order);
+        reserve(order);
         order.setStatus(RentalOrderStatus.CONFIRMED);
         order.setConfirmedAt(Instant.now());
         return rentalOrderRepository.save(order);
@@ -121,12 +117,13 @@ public class RentalOrderService {
     public RentalOrder activateOrder(Long landlordId, Long orderId) {
         RentalOrder order = getOrder(orderId);
         requireLandlordAccess(landlordId, order);
+        reserve(order);
         order.setStatus(RentalOrderStatus.ACTIVE);
         return rentalOrderRepository.save(order);
     }
 
     @Transactional
-    public RentalOrder requestTermination(User requester, Long orderId, String reason) {
+    public RentalOrder requestTermination(AuthPrincipal requester, Long orderId, String reason) {
         RentalOrder order = getOrder(orderId);
         ensureParticipant(requester, order);
         if (order.getStatus() == RentalOrderStatus.CANCELLED || order.getStatus() == RentalOrderStatus.TERMINATED) {
@@ -136,7 +133,7 @@ public class RentalOrderService {
             throw new BadRequestException("已存在待处理的终止申请");
         }
         order.setTerminationStatus(OrderTerminationStatus.REQUESTED);
-        order.setTerminationRequester(requester);
+        order.setTerminationRequester(userRepository.getReferenceById(requester.id()));
         order.setTerminationRequestedAt(Instant.now());
         order.setTerminationReason(reason);
         order.setTerminationResolver(null);
@@ -146,14 +143,14 @@ public class RentalOrderService {
     }
 
     @Transactional
-    public RentalOrder approveTermination(User resolver, Long orderId, String feedback) {
+    public RentalOrder approveTermination(AuthPrincipal resolver, Long orderId, String feedback) {
         RentalOrder order = getOrder(orderId);
         ensureCanResolveTermination(resolver, order);
         if (order.getTerminationStatus() != OrderTerminationStatus.REQUESTED) {
             throw new BadRequestException("当前无待处理的终止申请");
         }
         order.setTerminationStatus(OrderTerminationStatus.APPROVED);
-        order.setTerminationResolver(resolver);
+        order.setTerminationResolver(userRepository.getReferenceById(resolver.id()));
         order.setTerminationFeedback(feedback);
         order.setTerminationResolvedAt(Instant.now());
         order.setStatus(RentalOrderStatus.TERMINATED);
@@ -161,53 +158,73 @@ public class RentalOrderService {
     }
 
     @Transactional
-    public RentalOrder rejectTermination(User resolver, Long orderId, String feedback) {
+    public RentalOrder rejectTermination(AuthPrincipal resolver, Long orderId, String feedback) {
         RentalOrder order = getOrder(orderId);
         ensureCanResolveTermination(resolver, order);
         if (order.getTerminationStatus() != OrderTerminationStatus.REQUESTED) {
             throw new BadRequestException("当前无待处理的终止申请");
         }
         order.setTerminationStatus(OrderTerminationStatus.REJECTED);
-        order.setTerminationResolver(resolver);
+        order.setTerminationResolver(userRepository.getReferenceById(resolver.id()));
         order.setTerminationFeedback(feedback);
         order.setTerminationResolvedAt(Instant.now());
         return rentalOrderRepository.save(order);
     }
 
     @Transactional(readOnly = true)
-    public String downloadContract(User requester, Long orderId) {
+    public String downloadContract(AuthPrincipal requester, Long orderId) {
         RentalOrder order = getOrder(orderId);
-        if (!order.getTenant().getId().equals(requester.getId())
-                && !order.getLandlord().getId().equals(requester.getId())
-                && requester.getRole() != com.example.housebackend.domain.user.UserRole.ADMIN) {
+        if (!order.getTenant().getId().equals(requester.id())
+                && !order.getLandlord().getId().equals(requester.id())
+                && requester.role() != com.example.housebackend.domain.user.UserRole.ADMIN) {
             throw new AccessDeniedException("无权下载合同");
         }
         return order.getContractUrl();
     }
 
+    private void reserve(RentalOrder order) {
+        if (HouseAvailabilityIndex.BOOKED_STATUSES.contains(order.getStatus())) {
+            return;
+        }
+        ensureAvailable(order.getHouse().getId(), order.getStartDate(), order.getEndDate(), order.getId());
+    }
+
+    // 本地索引只用于快速拒绝；其他节点确认的租期要等索引重载才可见，写入前以数据库为准
+    private void ensureAvailable(Long houseId, LocalDate startDate, LocalDate endDate, Long excludeOrderId) {
+        if (availabilityIndex.hasOverlap(houseId, startDate, endDate, excludeOrderId)) {
+            throw new BadRequestException("该房源在所选日期已被预订");
+        }
+        bookingLocks.lockUntilCompletion(houseId);
+        houseRepository.lockById(houseId);
+        if (rentalOrderRepository.hasOverlappingOrders(houseId, startDate, endDate,
+                HouseAvailabilityIndex.BOOKED_STATUSES, excludeOrderId)) {
+            throw new BadRequestException("该房源在所选日期已被预订");
+        }
+    }
+
     private void requireLandlordAccess(Long landlordId, RentalOrder order) {
         if (!order.getLandlord().getId().equals(landlordId)) {
             throw new AccessDeniedException("无权操作该订单");
         }
     }
 
-    private void ensureParticipant(User user, RentalOrder order) {
-        if (user.getRole() == UserRole.ADMIN) {
+    private void ensureParticipant(AuthPrincipal user, RentalOrder order) {
+        if (user.role() == UserRole.ADMIN) {
             return;
         }
-        Long userId = user.getId();
+        Long userId = user.id();
         if (!order.getTenant().getId().equals(userId) && !order.getLandlord().getId().equals(userId)) {
             throw new AccessDeniedException("无权操作该订单");
         }
     }
 
-    private void ensureCanResolveTermination(User resolver, RentalOrder order) {
-        if (resolver.getRole() == UserRole.ADMIN) {
+    private void ensureCanResolveTermination(AuthPrincipal resolver, RentalOrder order) {
+        if (resolver.role() == UserRole.ADMIN) {
             return;
         }
         ensureParticipant(resolver, order);
         if (order.getTerminationRequester() != null
-                && order.getTerminationRequester().getId().equals(resolver.getId())) {
+                && order.getTerminationRequester().getId().equals(resolver.id())) {
             throw new AccessDeniedException("申请人无法审核自己的终止请求");
         }
     }
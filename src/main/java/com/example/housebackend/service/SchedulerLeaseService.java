@@ -0,0 +1,65 @@
+package com.example.housebackend.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class SchedulerLeaseService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+
+    public SchedulerLeaseService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    // 获取或续期租约；租约过期前其他节点无法获取
+    public boolean tryAcquire(String name, Duration ttl) {
+        Instant now = Instant.now();
+        Timestamp until = Timestamp.from(now.plus(ttl));
+        int updated = jdbcTemplate.update(
+                "update scheduler_leases set owner = ?, lease_until = ? where name = ? and (owner = ? or lease_until < ?)",
+                owner, until, name, owner, Timestamp.from(now));
+        if (updated > 0) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("insert into scheduler_leases (name, owner, lease_until) values (?, ?, ?)",
+                    name, owner, until);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        try {
+            jdbcTemplate.update("update scheduler_leases set lease_until = ? where name = ? and owner = ?",
+                    Timestamp.from(Instant.now()), name, owner);
+        } catch (RuntimeException ex) {
+            log.warn("释放调度租约 {} 失败，将在过期后自动失效", name, ex);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "node";
+        }
+    }
+}
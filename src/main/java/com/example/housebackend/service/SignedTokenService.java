@@ -0,0 +1,241 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.auth.AuthPrincipal;
+import com.example.housebackend.domain.auth.AuthToken;
+import com.example.housebackend.domain.user.User;
+import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.repository.AuthTokenRepository;
+import com.example.housebackend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+@Slf4j
+@Service
+public class SignedTokenService {
+
+    public static final String TOKEN_PREFIX = "v1.";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String REVOCATION_PREFIX = "jti:";
+    private static final int DELETED_USER_VERSION = -1;
+    private static final int REVOCATION_PRUNE_THRESHOLD = 4096;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final AuthTokenRepository authTokenRepository;
+    private final UserRepository userRepository;
+    private final SecretKeySpec key;
+    private final boolean issueSigned;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadLocal<Mac> macs;
+    private final Map<String, Long> revokedIds = new ConcurrentHashMap<>();
+    private final Map<Long, CachedVersion> userVersions = new ConcurrentHashMap<>();
+    private final long versionTtlNanos;
+    private final Duration revocationRefresh;
+    private volatile Instant revocationsLoadedAt;
+
+    public SignedTokenService(AuthTokenRepository authTokenRepository,
+                              UserRepository userRepository,
+                              @Value("${app.auth.token-mode:opaque}") String tokenMode,
+                              @Value("${app.auth.signing-secret:}") String signingSecret,
+                              @Value("${app.auth.signed.version-ttl:PT30S}") Duration versionTtl,
+                              @Value("${app.auth.signed.revocation-refresh:PT30S}") Duration revocationRefresh) {
+        this.authTokenRepository = authTokenRepository;
+        this.userRepository = userRepository;
+        this.versionTtlNanos = versionTtl.toNanos();
+        this.revocationRefresh = revocationRefresh;
+        this.issueSigned = "signed".equalsIgnoreCase(tokenMode);
+        byte[] secret;
+        if (StringUtils.hasText(signingSecret)) {
+            secret = signingSecret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            secret = new byte[32];
+            secureRandom.nextBytes(secret);
+            if (issueSigned) {
+                log.warn("app.auth.signing-secret 未配置，已生成临时密钥，重启后签名令牌将全部失效");
+            }
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @PostConstruct
+    void loadRevocations() {
+        Instant now = Instant.now();
+        remember(authTokenRepository.findRevokedByPrefix(REVOCATION_PREFIX + "%", now));
+        revocationsLoadedAt = now;
+    }
+
+    // 其他节点注销的令牌只写在 auth_tokens 中，按间隔增量拉取；回看一个间隔以覆盖提交延迟
+    @Scheduled(initialDelayString = "${app.auth.signed.revocation-refresh:PT30S}",
+            fixedDelayString = "${app.auth.signed.revocation-refresh:PT30S}")
+    public void refreshRevocations() {
+        Instant now = Instant.now();
+        remember(authTokenRepository.findRevokedByPrefixSince(REVOCATION_PREFIX + "%", now,
+                revocationsLoadedAt.minus(revocationRefresh)));
+        revocationsLoadedAt = now;
+        pruneRevocations();
+    }
+
+    public boolean isIssuingSigned() {
+        return issueSigned;
+    }
+
+    public boolean isSignedToken(String token) {
+        return token != null && token.startsWith(TOKEN_PREFIX);
+    }
+
+    public String issue(User user, Instant expiresAt) {
+        byte[] jti = new byte[16];
+        secureRandom.nextBytes(jti);
+        String claims = user.getId() + ":" + user.getRole().name() + ":" + expiresAt.getEpochSecond()
+                + ":" + user.getTokenVersion() + ":" + ENCODER.encodeToString(jti);
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        userVersions.put(user.getId(), new CachedVersion(user.getTokenVersion(), System.nanoTime()));
+        return TOKEN_PREFIX + payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public AuthPrincipal verify(String token) {
+        Claims claims = parse(token);
+        if (claims.expiresAt() < Instant.now().getEpochSecond()) {
+            throw new BadRequestException("访问令牌已过期");
+        }
+        if (revokedIds.containsKey(claims.jti())
+                || currentVersion(claims.userId(), claims.version()) != claims.version()) {
+            throw new BadRequestException("无效的访问令牌");
+        }
+        return new AuthPrincipal(claims.userId(), null, null, null, claims.role());
+    }
+
+    // 返回令牌所属用户，令牌无法解析时返回 null
+    public Long revoke(String token) {
+        Claims claims;
+        try {
+            claims = parse(token);
+        } catch (BadRequestException ex) {
+            return null;
+        }
+        if (revokedIds.putIfAbsent(claims.jti(), claims.expiresAt()) != null) {
+            return claims.userId();
+        }
+        AuthToken record = new AuthToken();
+        record.setToken(REVOCATION_PREFIX + claims.jti());
+        record.setUser(userRepository.getReferenceById(claims.userId()));
+        record.setExpiresAt(Instant.ofEpochSecond(claims.expiresAt()));
+        record.setRevoked(true);
+        authTokenRepository.save(record);
+        pruneRevocations();
+        return claims.userId();
+    }
+
+    public void forgetUser(Long userId) {
+        userVersions.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userVersions.remove(userId);
+                }
+            });
+        }
+    }
+
+    public int revokedCount() {
+        return revokedIds.size();
+    }
+
+    // 缓存只保留 version-ttl，过期后回库，其他节点递增的版本最迟在一个 TTL 内生效
+    private int currentVersion(Long userId, int claimed) {
+        CachedVersion cached = userVersions.get(userId);
+        long now = System.nanoTime();
+        // 版本只增不减：缓存不低于令牌版本时可直接判定，只有令牌更新（别的节点已递增）才需要回库
+        if (cached != null && now - cached.loadedAt() < versionTtlNanos
+                && (cached.version() >= claimed || cached.version() == DELETED_USER_VERSION)) {
+            return cached.version();
+        }
+        int version = userRepository.findTokenVersionById(userId).orElse(DELETED_USER_VERSION);
+        userVersions.put(userId, new CachedVersion(version, now));
+        return version;
+    }
+
+    private void remember(Iterable<AuthToken> revocations) {
+        for (AuthToken revoked : revocations) {
+            revokedIds.put(revoked.getToken().substring(REVOCATION_PREFIX.length()),
+                    revoked.getExpiresAt().getEpochSecond());
+        }
+    }
+
+    private void pruneRevocations() {
+        if (revokedIds.size() > REVOCATION_PRUNE_THRESHOLD) {
+            long now = Instant.now().getEpochSecond();
+            revokedIds.values().removeIf(expiresAt -> expiresAt < now);
+        }
+    }
+
+    private Claims parse(String token) {
+        if (!isSignedToken(token)) {
+            throw new BadRequestException("无效的访问令牌");
+        }
+        int separator = token.lastIndexOf('.');
+        if (separator <= TOKEN_PREFIX.length()) {
+            throw new BadRequestException("无效的访问令牌");
+        }
+        String payload = token.substring(TOKEN_PREFIX.length(), separator);
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                throw new BadRequestException("无效的访问令牌");
+            }
+            String[] parts = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 5) {
+                throw new BadRequestException("无效的访问令牌");
+            }
+            return new Claims(
+                    Long.valueOf(parts[0]),
+                    UserRole.valueOf(parts[1]),
+                    Long.parseLong(parts[2]),
+                    Integer.parseInt(parts[3]),
+                    parts[4]);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("无效的访问令牌");
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("无法初始化令牌签名算法", ex);
+        }
+    }
+
+    private record CachedVersion(int version, long loadedAt) {
+    }
+
+    private record Claims(Long userId, UserRole role, long expiresAt, int version, String jti) {
+    }
+}
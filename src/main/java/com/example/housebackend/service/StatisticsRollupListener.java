@@ -0,0 +1,171 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.common.BaseEntity;
+import com.example.housebackend.domain.contact.ContactRecord;
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.domain.order.RentalOrder;
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.domain.support.SupportTicket;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 汇总表增量在 flush 时写入，与业务数据同事务提交，对账不会重复计数；推送仍等到提交之后。
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticsRollupListener implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StatisticsRollupService rollupService;
+    private final AdminStatsPublisher statsPublisher;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof House house) {
+            rollupService.houseChanged(idOf(house.getRegion()), idOf(house.getSubwayLine()), house.getStatus(), 1);
+            publishHouse(idOf(house.getRegion()), idOf(house.getSubwayLine()), 1);
+            statusChanged("houses", null, house.getStatus());
+        } else if (event.getEntity() instanceof RentalOrder order) {
+            rollupService.orderChanged(order.getCreatedAt(), order.getStatus(), 1);
+            record("orders.created", 1);
+            statusChanged("orders", null, order.getStatus());
+        } else if (event.getEntity() instanceof ContactRecord contact) {
+            record("contacts.created", 1);
+            statusChanged("contacts", null, contact.getStatus());
+        } else if (event.getEntity() instanceof SupportTicket ticket) {
+            record("tickets.created", 1);
+            statusChanged("tickets", null, ticket.getStatus());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        if (event.getEntity() instanceof House house) {
+            Long oldRegion = idOf(valueOf(names, oldState, "region"));
+            Long oldSubway = idOf(valueOf(names, oldState, "subwayLine"));
+            HouseStatus oldStatus = (HouseStatus) valueOf(names, oldState, "status");
+            Long newRegion = idOf(house.getRegion());
+            Long newSubway = idOf(house.getSubwayLine());
+            if (Objects.equals(oldRegion, newRegion) && Objects.equals(oldSubway, newSubway)
+                    && oldStatus == house.getStatus()) {
+                return;
+            }
+            rollupService.houseChanged(oldRegion, oldSubway, oldStatus, -1);
+            rollupService.houseChanged(newRegion, newSubway, house.getStatus(), 1);
+            publishHouse(oldRegion, oldSubway, -1);
+            publishHouse(newRegion, newSubway, 1);
+            statusChanged("houses", oldStatus, house.getStatus());
+        } else if (event.getEntity() instanceof RentalOrder order) {
+            RentalOrderStatus oldStatus = (RentalOrderStatus) valueOf(names, oldState, "status");
+            if (oldStatus == order.getStatus()) {
+                return;
+            }
+            rollupService.orderChanged(order.getCreatedAt(), oldStatus, -1);
+            rollupService.orderChanged(order.getCreatedAt(), order.getStatus(), 1);
+            statusChanged("orders", oldStatus, order.getStatus());
+        } else if (event.getEntity() instanceof ContactRecord contact) {
+            statusChanged("contacts", (Enum<?>) valueOf(names, oldState, "status"), contact.getStatus());
+        } else if (event.getEntity() instanceof SupportTicket ticket) {
+            statusChanged("tickets", (Enum<?>) valueOf(names, oldState, "status"), ticket.getStatus());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object[] deletedState = event.getDeletedState();
+        String[] names = event.getPersister().getPropertyNames();
+        Object status = valueOf(names, deletedState, "status");
+        if (event.getEntity() instanceof House) {
+            Long region = idOf(valueOf(names, deletedState, "region"));
+            Long subway = idOf(valueOf(names, deletedState, "subwayLine"));
+            rollupService.houseChanged(region, subway, (HouseStatus) status, -1);
+            publishHouse(region, subway, -1);
+            statusChanged("houses", (Enum<?>) status, null);
+        } else if (event.getEntity() instanceof RentalOrder order) {
+            rollupService.orderChanged(order.getCreatedAt(), (RentalOrderStatus) status, -1);
+            statusChanged("orders", (Enum<?>) status, null);
+        } else if (event.getEntity() instanceof ContactRecord) {
+            statusChanged("contacts", (Enum<?>) status, null);
+        } else if (event.getEntity() instanceof SupportTicket) {
+            statusChanged("tickets", (Enum<?>) status, null);
+        }
+    }
+
+    private void publishHouse(Long regionId, Long subwayLineId, long delta) {
+        record("houses.region." + (regionId != null ? regionId : 0L), delta);
+        record("houses.subway." + (subwayLineId != null ? subwayLineId : 0L), delta);
+    }
+
+    private void record(String key, long delta) {
+        afterCommit(() -> statsPublisher.record(key, delta));
+    }
+
+    private void statusChanged(String prefix, Enum<?> from, Enum<?> to) {
+        afterCommit(() -> statsPublisher.statusChanged(prefix, from, to));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Object valueOf(String[] names, Object[] state, String property) {
+        int index = Arrays.asList(names).indexOf(property);
+        return index >= 0 && state != null ? state[index] : null;
+    }
+
+    private static Long idOf(Object entity) {
+        if (entity instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return entity instanceof BaseEntity base ? base.getId() : null;
+    }
+}
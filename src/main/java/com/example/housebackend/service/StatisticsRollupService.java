@@ -0,0 +1,235 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.domain.statistics.DailyOrderStat;
+import com.example.housebackend.domain.statistics.HouseCountStat;
+import com.example.housebackend.repository.DailyOrderStatRepository;
+import com.example.housebackend.repository.HouseCountStatRepository;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+@Slf4j
+@Service
+public class StatisticsRollupService {
+
+    static final String LEASE_NAME = "statistics-reconcile";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService leaseService;
+    private final DailyOrderStatRepository dailyOrderStatRepository;
+    private final HouseCountStatRepository houseCountStatRepository;
+    private final ZoneId zoneId;
+    private final int reconcileDays;
+    private final Duration leaseTtl;
+
+    public StatisticsRollupService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   SchedulerLeaseService leaseService,
+                                   DailyOrderStatRepository dailyOrderStatRepository,
+                                   HouseCountStatRepository houseCountStatRepository,
+                                   @Value("${app.statistics.time-zone:}") String timeZone,
+                                   @Value("${app.statistics.reconcile-days:7}") int reconcileDays,
+                                   @Value("${app.statistics.reconcile-lease-ttl:PT10M}") Duration leaseTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseService = leaseService;
+        this.dailyOrderStatRepository = dailyOrderStatRepository;
+        this.houseCountStatRepository = houseCountStatRepository;
+        this.zoneId = StringUtils.hasText(timeZone) ? ZoneId.of(timeZone) : ZoneId.systemDefault();
+        this.reconcileDays = Math.max(1, reconcileDays);
+        this.leaseTtl = leaseTtl;
+    }
+
+    public ZoneId zoneId() {
+        return zoneId;
+    }
+
+    public Map<LocalDate, Long> dailyOrderCounts(LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (DailyOrderStat stat : dailyOrderStatRepository.findByStatDateBetween(from, to)) {
+            counts.merge(stat.getStatDate(), stat.getTotal(), Long::sum);
+        }
+        return counts;
+    }
+
+    public List<HouseCountStat> houseCounts() {
+        return houseCountStatRepository.findAll();
+    }
+
+    // 增量由实体监听器在业务事务内写入，与业务数据一起提交或回滚
+    public void orderChanged(Instant createdAt, RentalOrderStatus status, long delta) {
+        if (createdAt == null || status == null || delta == 0) {
+            return;
+        }
+        Date day = Date.valueOf(createdAt.atZone(zoneId).toLocalDate());
+        applyDelta(() -> upsert(
+                "update stat_daily_orders set total = total + ? where stat_date = ? and status = ?",
+                "insert into stat_daily_orders (stat_date, status, total) values (?, ?, ?)",
+                delta, day, status.name()));
+    }
+
+    public void houseChanged(Long regionId, Long subwayLineId, HouseStatus status, long delta) {
+        if (status == null || delta == 0) {
+            return;
+        }
+        long region = regionId != null ? regionId : HouseCountStat.NONE;
+        long subway = subwayLineId != null ? subwayLineId : HouseCountStat.NONE;
+        applyDelta(() -> upsert(
+                "update stat_house_counts set total = total + ? where region_id = ? and subway_line_id = ? and status = ?",
+                "insert into stat_house_counts (region_id, subway_line_id, status, total) values (?, ?, ?, ?)",
+                delta, region, subway, status.name()));
+    }
+
+    // 首次部署或汇总表被清空时回填全部历史；已有数据时交给每晚的窗口对账
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        Long rows = jdbcTemplate.queryForObject("select count(*) from stat_daily_orders", Long.class);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        Timestamp earliest = jdbcTemplate.queryForObject("select min(created_at) from rental_orders", Timestamp.class);
+        LocalDate today = LocalDate.now(zoneId);
+        reconcile(earliest != null ? earliest.toInstant().atZone(zoneId).toLocalDate() : today, today);
+    }
+
+    @Scheduled(cron = "${app.statistics.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        LocalDate yesterday = LocalDate.now(zoneId).minusDays(1);
+        reconcile(yesterday.minusDays(reconcileDays - 1L), yesterday);
+    }
+
+    /**
+     * 在调度租约下按天对账 [from, to]，同一时刻只有一个节点执行。
+     * 增量与业务写入同事务提交，对账先锁住当天的汇总行再聚合业务表，两者不会重复计数。
+     */
+    public void reconcile(LocalDate from, LocalDate to) {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            return;
+        }
+        long start = System.nanoTime();
+        int failed = 0;
+        try {
+            failed += reconcileStep(this::reconcileHouseCounts, "房源");
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                    log.warn("调度租约 {} 已被其他节点接管，停止本轮对账", LEASE_NAME);
+                    break;
+                }
+                LocalDate current = day;
+                failed += reconcileStep(() -> reconcileDay(current), current.toString());
+            }
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+        log.info("统计汇总表已对账 {} 至 {}，失败 {} 项，用时 {} ms",
+                from, to, failed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int reconcileStep(Runnable step, String label) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> step.run());
+            return 0;
+        } catch (RuntimeException ex) {
+            log.warn("统计汇总对账失败：{}，保留增量数据", label, ex);
+            return 1;
+        }
+    }
+
+    private void reconcileHouseCounts() {
+        Map<List<Object>, Long> stored = new HashMap<>();
+        jdbcTemplate.query("select region_id, subway_line_id, status, total from stat_house_counts for update",
+                (RowCallbackHandler) rs -> stored.put(
+                        List.of(rs.getLong(1), rs.getLong(2), rs.getString(3)), rs.getLong(4)));
+        Map<List<Object>, Long> actual = new HashMap<>();
+        jdbcTemplate.query("select region_id, subway_line_id, status, count(*) from houses group by region_id, subway_line_id, status",
+                (RowCallbackHandler) rs -> actual.put(List.of(
+                        rs.getObject(1) != null ? rs.getLong(1) : HouseCountStat.NONE,
+                        rs.getObject(2) != null ? rs.getLong(2) : HouseCountStat.NONE,
+                        rs.getString(3)), rs.getLong(4)));
+        applyDifference(stored, actual, key -> upsert(
+                "update stat_house_counts set total = total + ? where region_id = ? and subway_line_id = ? and status = ?",
+                "insert into stat_house_counts (region_id, subway_line_id, status, total) values (?, ?, ?, ?)",
+                key.delta(), key.columns().toArray()));
+    }
+
+    private void reconcileDay(LocalDate day) {
+        Date statDate = Date.valueOf(day);
+        Map<List<Object>, Long> stored = new HashMap<>();
+        jdbcTemplate.query("select status, total from stat_daily_orders where stat_date = ? for update",
+                (RowCallbackHandler) rs -> stored.put(List.of(rs.getString(1)), rs.getLong(2)), statDate);
+        Map<List<Object>, Long> actual = new HashMap<>();
+        jdbcTemplate.query("select status, count(*) from rental_orders where created_at >= ? and created_at < ? group by status",
+                (RowCallbackHandler) rs -> actual.put(List.of(rs.getString(1)), rs.getLong(2)),
+                Timestamp.from(day.atStartOfDay(zoneId).toInstant()),
+                Timestamp.from(day.plusDays(1).atStartOfDay(zoneId).toInstant()));
+        applyDifference(stored, actual, key -> upsert(
+                "update stat_daily_orders set total = total + ? where stat_date = ? and status = ?",
+                "insert into stat_daily_orders (stat_date, status, total) values (?, ?, ?)",
+                key.delta(), statDate, key.columns().get(0)));
+    }
+
+    // 只按差值修正，不删除重插，并发写入的增量不会被覆盖
+    private static void applyDifference(Map<List<Object>, Long> stored, Map<List<Object>, Long> actual,
+                                        Consumer<Correction> apply) {
+        Set<List<Object>> keys = new HashSet<>(stored.keySet());
+        keys.addAll(actual.keySet());
+        for (List<Object> key : keys) {
+            long delta = actual.getOrDefault(key, 0L) - stored.getOrDefault(key, 0L);
+            if (delta != 0) {
+                apply.accept(new Correction(key, delta));
+            }
+        }
+    }
+
+    private void upsert(String updateSql, String insertSql, long delta, Object... key) {
+        Object[] updateArgs = new Object[key.length + 1];
+        updateArgs[0] = delta;
+        System.arraycopy(key, 0, updateArgs, 1, key.length);
+        if (jdbcTemplate.update(updateSql, updateArgs) > 0) {
+            return;
+        }
+        Object[] insertArgs = new Object[key.length + 1];
+        System.arraycopy(key, 0, insertArgs, 0, key.length);
+        insertArgs[key.length] = delta;
+        try {
+            jdbcTemplate.update(insertSql, insertArgs);
+        } catch (DuplicateKeyException ex) {
+            jdbcTemplate.update(updateSql, updateArgs);
+        }
+    }
+
+    private void applyDelta(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ex) {
+            log.warn("统计汇总增量更新失败，将在下次对账时修正", ex);
+        }
+    }
+
+    private record Correction(List<Object> columns, long delta) {
+    }
+}
@@ -1,19 +1,23 @@
 package com.example.housebackend.service;
 
-import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.statistics.HouseCountStat;
 import com.example.housebackend.dto.statistics.DailyTrendStat;
 import com.example.housebackend.dto.statistics.DistributionItem;
 import com.example.housebackend.dto.statistics.RentalTrendStats;
-import com.example.housebackend.repository.HouseRepository;
-import com.example.housebackend.repository.RentalOrderRepository;
-import java.time.Instant;
+import com.example.housebackend.dto.statistics.TrendGranularity;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.repository.RegionRepository;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,30 +26,50 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class StatisticsService {
 
-    private final RentalOrderRepository rentalOrderRepository;
-    private final HouseRepository houseRepository;
+    private static final int MAX_TREND_DAYS = 366;
+
+    private final StatisticsRollupService rollupService;
+    private final RegionRepository regionRepository;
 
     @Transactional(readOnly = true)
     public RentalTrendStats rentalTrendLastMonth() {
-        List<DailyTrendStat> dailyStats = new ArrayList<>();
+        return rentalTrend(30, TrendGranularity.DAY);
+    }
+
+    @Transactional(readOnly = true)
+    public RentalTrendStats rentalTrend(int days, TrendGranularity granularity) {
+        if (days < 1 || days > MAX_TREND_DAYS) {
+            throw new BadRequestException("统计天数需在 1 到 " + MAX_TREND_DAYS + " 之间");
+        }
+        ZoneId zoneId = rollupService.zoneId();
+        LocalDate today = LocalDate.now(zoneId);
+        LocalDate firstDay = today.minusDays(days - 1L);
+
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        for (LocalDate day = bucketStart(firstDay, granularity); !day.isAfter(today); day = nextBucket(day, granularity)) {
+            counts.put(day, 0L);
+        }
         long total = 0L;
-        LocalDate today = LocalDate.now();
-        for (int i = 29; i >= 0; i--) {
-            LocalDate day = today.minusDays(i);
-            Instant start = day.atStartOfDay().toInstant(ZoneOffset.UTC);
-            Instant end = day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
-            long count = rentalOrderRepository.countByCreatedAtBetween(start, end);
-            total += count;
-            dailyStats.add(new DailyTrendStat(day.toString(), count));
+        for (Map.Entry<LocalDate, Long> daily : rollupService.dailyOrderCounts(firstDay, today).entrySet()) {
+            counts.merge(bucketStart(daily.getKey(), granularity), daily.getValue(), Long::sum);
+            total += daily.getValue();
         }
-        return new RentalTrendStats(total, dailyStats);
+        List<DailyTrendStat> stats = new ArrayList<>(counts.size());
+        counts.forEach((day, count) -> stats.add(new DailyTrendStat(label(day, granularity), count)));
+        return new RentalTrendStats(total, stats);
     }
 
     @Transactional(readOnly = true)
     public List<DistributionItem> subwayDistribution() {
-        List<House> houses = houseRepository.findAll();
-        long withSubway = houses.stream().filter(h -> h.getSubwayLine() != null).count();
-        long withoutSubway = houses.size() - withSubway;
+        long withSubway = 0L;
+        long withoutSubway = 0L;
+        for (HouseCountStat stat : rollupService.houseCounts()) {
+            if (stat.getSubwayLineId() != HouseCountStat.NONE) {
+                withSubway += stat.getTotal();
+            } else {
+                withoutSubway += stat.getTotal();
+            }
+        }
         return List.of(
                 new DistributionItem("靠近地铁", withSubway),
                 new DistributionItem("非地铁房源", withoutSubway));
@@ -53,13 +77,42 @@ public class StatisticsService {
 
     @Transactional(readOnly = true)
     public List<DistributionItem> regionDistribution() {
-        Map<String, Long> counted = houseRepository.findAll().stream()
-                .collect(Collectors.groupingBy(
-                        house -> house.getRegion() != null ? house.getRegion().getName() : "未分配区域",
-                        Collectors.counting()));
+        Map<Long, Long> byRegion = new HashMap<>();
+        for (HouseCountStat stat : rollupService.houseCounts()) {
+            byRegion.merge(stat.getRegionId(), stat.getTotal(), Long::sum);
+        }
+        Map<Long, String> names = new HashMap<>();
+        regionRepository.findAllById(byRegion.keySet())
+                .forEach(region -> names.put(region.getId(), region.getName()));
+        Map<String, Long> counted = new HashMap<>();
+        byRegion.forEach((regionId, total) -> {
+            if (total > 0) {
+                counted.merge(names.getOrDefault(regionId, "未分配区域"), total, Long::sum);
+            }
+        });
         return counted.entrySet().stream()
                 .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
                 .map(entry -> new DistributionItem(entry.getKey(), entry.getValue()))
                 .toList();
     }
+
+    private static LocalDate bucketStart(LocalDate day, TrendGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate day, TrendGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> day.plusDays(1);
+            case WEEK -> day.plusWeeks(1);
+            case MONTH -> day.plusMonths(1);
+        };
+    }
+
+    private static String label(LocalDate day, TrendGranularity granularity) {
+        return granularity == TrendGranularity.MONTH ? YearMonth.from(day).toString() : day.toString();
+    }
 }
@@ -1,9 +1,9 @@
 package com.example.housebackend.service;
 
+import com.example.housebackend.domain.auth.AuthPrincipal;
 import com.example.housebackend.domain.support.SupportMessage;
 import com.example.housebackend.domain.support.SupportTicket;
 import com.example.housebackend.domain.support.SupportTicketStatus;
-import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserRole;
 import com.example.housebackend.dto.DtoMapper;
 import com.example.housebackend.exception.AccessDeniedException;
@@ -41,12 +41,12 @@ public class SupportService {
     }
 
     @Transactional
-    public SupportTicket createTicket(User requester, String subject, String category, String message) {
+    public SupportTicket createTicket(AuthPrincipal requester, String subject, String category, String message) {
         if (!StringUtils.hasText(subject)) {
             throw new BadRequestException("请输入工单主题");
         }
         SupportTicket ticket = new SupportTicket();
-        ticket.setRequester(userRepository.getReferenceById(requester.getId()));
+        ticket.setRequester(userRepository.getReferenceById(requester.id()));
         ticket.setSubject(subject.trim());
         ticket.setCategory(StringUtils.hasText(category) ? category.trim() : null);
         ticket.setStatus(SupportTicketStatus.OPEN);
@@ -61,14 +61,14 @@ public class SupportService {
     }
 
     @Transactional
-    public SupportMessage sendMessage(Long ticketId, User sender, String content, List<String> attachments) {
+    public SupportMessage sendMessage(Long ticketId, AuthPrincipal sender, String content, List<String> attachments) {
         if (!StringUtils.hasText(content) && (attachments == null || attachments.isEmpty())) {
             throw new BadRequestException("消息内容不能为空");
         }
         SupportTicket ticket = requireTicket(ticketId);
         ensureParticipant(ticket, sender);
-        if (sender.getRole() == UserRole.ADMIN && ticket.getHandler() == null) {
-            ticket.setHandler(userRepository.getReferenceById(sender.getId()));
+        if (sender.role() == UserRole.ADMIN && ticket.getHandler() == null) {
+            ticket.setHandler(userRepository.getReferenceById(sender.id()));
             ticket.setStatus(SupportTicketStatus.IN_PROGRESS);
         }
         SupportMessage message = buildMessage(ticket, sender, content, attachments);
@@ -79,7 +79,7 @@ public class SupportService {
         }
         SupportMessage saved = messageRepository.save(message);
         ticketRepository.save(ticket);
-        if (sender.getRole() != UserRole.ADMIN) {
+        if (sender.role() != UserRole.ADMIN) {
             notifyAdmins(ticket);
         }
         return messageRepository.findWithRelationsById(saved.getId()).orElse(saved);
@@ -99,14 +99,14 @@ public class SupportService {
     }
 
     @Transactional(readOnly = true)
-    public Page<SupportMessage> listMessages(Long ticketId, User user, Pageable pageable) {
+    public Page<SupportMessage> listMessages(Long ticketId, AuthPrincipal user, Pageable pageable) {
         SupportTicket ticket = requireTicket(ticketId);
         ensureParticipant(ticket, user);
         return messageRepository.findByTicketIdOrderByCreatedAtAsc(ticketId, pageable);
     }
 
     @Transactional
-    public SupportTicket updateStatus(Long ticketId, SupportTicketStatus status, User actor) {
+    public SupportTicket updateStatus(Long ticketId, SupportTicketStatus status, AuthPrincipal actor) {
         SupportTicket ticket = requireTicket(ticketId);
         ensureParticipant(ticket, actor);
         ticket.setStatus(status);
@@ -125,11 +125,11 @@ public class SupportService {
                 .orElseThrow(() -> new ResourceNotFoundException("工单不存在"));
     }
 
-    private void ensureParticipant(SupportTicket ticket, User user) {
-        if (user.getRole() == UserRole.ADMIN) {
+    private void ensureParticipant(SupportTicket ticket, AuthPrincipal user) {
+        if (user.role() == UserRole.ADMIN) {
             return;
         }
-        Long userId = user.getId();
+        Long userId = user.id();
         if (ticket.getRequester() != null && ticket.getRequester().getId().equals(userId)) {
             return;
         }
@@ -139,11 +139,11 @@ public class SupportService {
         throw new AccessDeniedException("无权访问该工单");
     }
 
-    private SupportMessage buildMessage(SupportTicket ticket, User sender, String content, List<String> attachments) {
+    private SupportMessage buildMessage(SupportTicket ticket, AuthPrincipal sender, String content, List<String> attachments) {
         SupportMessage message = new SupportMessage();
         message.setTicket(ticket);
-        message.setSender(userRepository.getReferenceById(sender.getId()));
-        message.setSenderRole(sender.getRole());
+        message.setSender(userRepository.getReferenceById(sender.id()));
+        message.setSenderRole(sender.role());
         message.setContent(StringUtils.hasText(content) ? content.trim() : null);
         message.setAttachmentUrls(sanitizeAttachments(attachments));
         return message;
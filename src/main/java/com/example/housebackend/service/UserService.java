@@ -4,19 +4,37 @@ import com.example.housebackend.domain.user.User;
 import com.example.housebackend.domain.user.UserRole;
 import com.example.housebackend.exception.BadRequestException;
 import com.example.housebackend.exception.ResourceNotFoundException;
+import com.example.housebackend.repository.AuthTokenRepository;
 import com.example.housebackend.repository.UserRepository;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final AuthTokenRepository authTokenRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final AuthTokenCache authTokenCache;
+    private final AuthService authService;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(UserRepository userRepository,
+                       AuthTokenRepository authTokenRepository,
+                       PasswordHashingService passwordHashingService,
+                       AuthTokenCache authTokenCache,
+                       AuthService authService,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.authTokenRepository = authTokenRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.authTokenCache = authTokenCache;
+        this.authService = authService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Transactional(readOnly = true)
     public User getProfile(Long userId) {
@@ -35,17 +53,25 @@ public class UserService {
         user.setBio(updated.getBio());
         user.setIdNumber(updated.getIdNumber());
         user.replaceMedia(updated.getMedia());
+        authTokenCache.invalidateUser(userId);
         return userRepository.save(user);
     }
 
-    @Transactional
+    // 两次 BCrypt 都在事务外完成，写回时确认密码未被并发修改
     public void changePassword(Long userId, String oldPassword, String newPassword) {
-        User user = getProfile(userId);
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        String current = getProfile(userId).getPassword();
+        if (!passwordHashingService.matches(oldPassword, current)) {
             throw new BadRequestException("原密码错误");
         }
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        String encoded = passwordHashingService.encode(newPassword);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = getProfile(userId);
+            if (!current.equals(user.getPassword())) {
+                throw new BadRequestException("密码已被修改，请重试");
+            }
+            user.setPassword(encoded);
+        });
+        authTokenCache.invalidateUser(userId);
     }
 
     @Transactional(readOnly = true)
@@ -56,6 +82,9 @@ public class UserService {
     @Transactional
     public void deleteUser(Long userId) {
         User user = getProfile(userId);
+        // 令牌行引用用户，先删令牌再删用户
+        authTokenRepository.deleteByUserId(userId);
         userRepository.delete(user);
+        authService.evictSessions(userId);
     }
 }
@@ -0,0 +1,82 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.repository.HouseRepository;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AmenityOverflowTest {
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private AmenityDictionary amenityDictionary;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void amenitiesBeyondTheBitmapAreStoredAndFilteredByJoin() {
+        amenityDictionary.register(IntStream.range(0, AmenityDictionary.CAPACITY).mapToObj(i -> "配套" + i).toList());
+        assertThat(amenityDictionary.size()).isEqualTo(AmenityDictionary.CAPACITY);
+        assertThat(amenityDictionary.register(Set.of("超出位图的配套"))).isZero();
+
+        // 新建房源而不改种子数据，共用测试库中的其他测试仍按原有配套断言
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            House template = houseRepository.findAll().get(0);
+            House house = new House();
+            house.setTitle("配套溢出测试房源");
+            house.setRentPrice(BigDecimal.valueOf(3500));
+            house.setOwner(template.getOwner());
+            house.setRegion(template.getRegion());
+            house.setStatus(HouseStatus.PUBLISHED);
+            house.setAmenities(new HashSet<>(Set.of("配套0", "超出位图的配套")));
+            house.setAmenityMask(amenityDictionary.register(house.getAmenities()));
+            houseRepository.save(house);
+        });
+
+        assertThat(titles(Set.of("超出位图的配套"))).containsExactly("配套溢出测试房源");
+        assertThat(titles(Set.of("超出位图的配套", "配套0"))).containsExactly("配套溢出测试房源");
+        assertThat(titles(Set.of("超出位图的配套", "地暖"))).isEmpty();
+        assertThat(titles(Set.of("另一个未登记的配套"))).isEmpty();
+    }
+
+    @Test
+    void rejectsOverlongOrTooManyAmenities() {
+        assertThatThrownBy(() -> AmenityDictionary.requireValid(Set.of("长".repeat(AmenityDictionary.MAX_NAME_LENGTH + 1))))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> AmenityDictionary.requireValid(IntStream.rangeClosed(0, AmenityDictionary.MAX_PER_HOUSE)
+                .mapToObj(i -> "配套" + i).toList()))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private List<String> titles(Set<String> amenities) {
+        HouseSearchCriteria criteria = new HouseSearchCriteria(null, null, null, null, null, null, null, null,
+                amenities, null, null, null);
+        return houseService.search(criteria, PageRequest.of(0, 50)).getContent().stream()
+                .map(House::getTitle)
+                .toList();
+    }
+}
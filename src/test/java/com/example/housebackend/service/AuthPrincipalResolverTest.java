@@ -0,0 +1,154 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.housebackend.config.AuthPrincipalResolver;
+import com.example.housebackend.config.CurrentUser;
+import com.example.housebackend.config.RequireRole;
+import com.example.housebackend.domain.auth.AuthPrincipal;
+import com.example.housebackend.domain.user.User;
+import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.exception.AccessDeniedException;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.repository.AuthTokenRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuthPrincipalResolverTest {
+
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private AuthPrincipalResolver resolver;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AuthTokenRepository authTokenRepository;
+
+    @Autowired
+    private LastLoginWriter lastLoginWriter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter counter;
+    private String token;
+    private Long userId;
+
+    @BeforeAll
+    void login() {
+        counter = new StatementCounter(entityManagerFactory);
+        userId = authService.register("resolver-landlord", PASSWORD, "解析器测试", "13700000000", UserRole.LANDLORD).getId();
+        token = authService.login("resolver-landlord", PASSWORD).getToken();
+        // 登录时间异步批量写回，先刷掉以免计入语句数
+        lastLoginWriter.flush();
+    }
+
+    @Test
+    void cachedPrincipalIsResolvedWithoutStatements() {
+        // 改造前每个接口都按请求头查一次令牌并连接用户
+        long before = counter.count(() -> List.of(authTokenRepository.findByTokenAndRevokedFalse(token).orElseThrow()));
+
+        authService.requirePrincipal(token);
+        long after = counter.count(() -> handle(request(token), "landlordOnly"));
+
+        assertThat(before).isEqualTo(1);
+        assertThat(after).isZero();
+    }
+
+    @Test
+    void principalIsLoadedOncePerRequestOnACacheMiss() {
+        String fresh = authService.login("resolver-landlord", PASSWORD).getToken();
+        lastLoginWriter.flush();
+        MockHttpServletRequest request = request(fresh);
+
+        // 拦截器校验角色与参数注入共用同一次解析
+        assertThat(counter.count(() -> handle(request, "landlordOnly"))).isEqualTo(1);
+        assertThat(counter.count(() -> handle(request, "landlordOnly"))).isZero();
+    }
+
+    @Test
+    void userEntityCostsOneSelectByIdOnlyWhereRequested() {
+        authService.requirePrincipal(token);
+        MockHttpServletRequest request = request(token);
+
+        assertThat(counter.count(() -> handle(request, "profile"))).isEqualTo(1);
+        assertThat(((User) handle(request, "profile").get(0)).getId()).isEqualTo(userId);
+        assertThat(counter.count(() -> handle(request, "profile"))).isZero();
+    }
+
+    @Test
+    void missingTokenIsABadRequestAndWrongRoleIsDenied() {
+        assertThatThrownBy(() -> handle(request(null), "landlordOnly"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("缺少认证信息");
+        assertThatThrownBy(() -> handle(request(token), "adminOnly"))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private MockHttpServletRequest request(String tokenValue) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (tokenValue != null) {
+            request.addHeader(AuthPrincipalResolver.TOKEN_HEADER, tokenValue);
+        }
+        return request;
+    }
+
+    // 按 DispatcherServlet 的顺序先走拦截器再解析参数，返回注入的参数
+    private List<Object> handle(MockHttpServletRequest request, String methodName) {
+        Method method = findMethod(methodName);
+        HandlerMethod handler = new HandlerMethod(new Endpoints(), method);
+        resolver.preHandle(request, new MockHttpServletResponse(), handler);
+        List<Object> arguments = new ArrayList<>();
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            if (resolver.supportsParameter(parameter)) {
+                arguments.add(resolver.resolveArgument(parameter, null, new ServletWebRequest(request), null));
+            }
+        }
+        return arguments;
+    }
+
+    private static Method findMethod(String name) {
+        for (Method method : Endpoints.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    static class Endpoints {
+
+        @RequireRole(UserRole.LANDLORD)
+        void landlordOnly(@CurrentUser AuthPrincipal principal) {
+        }
+
+        @RequireRole(UserRole.ADMIN)
+        void adminOnly(@CurrentUser AuthPrincipal principal) {
+        }
+
+        @RequireRole
+        void profile(@CurrentUser User user) {
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.housebackend.domain.auth.AuthPrincipal;
+import com.example.housebackend.domain.certification.LandlordCertification;
+import com.example.housebackend.domain.certification.LandlordCertificationStatus;
+import com.example.housebackend.domain.user.User;
+import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.exception.BadRequestException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuthTokenCacheTest {
+
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CertificationService certificationService;
+
+    @Autowired
+    private AuthTokenCache authTokenCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long adminId;
+
+    @BeforeAll
+    void registerAdmin() {
+        adminId = register("cache-test-admin", UserRole.ADMIN).getId();
+    }
+
+    @Test
+    void logoutEvictsTheCachedPrincipalImmediately() {
+        register("cache-logout", UserRole.USER);
+        String token = cachedLogin("cache-logout");
+
+        authService.logout(token);
+
+        assertThat(authTokenCache.get(token)).isEmpty();
+        assertThatThrownBy(() -> authService.requirePrincipal(token)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void changePasswordEvictsTheCachedPrincipalImmediately() {
+        Long userId = register("cache-password", UserRole.USER).getId();
+        String token = cachedLogin("cache-password");
+
+        userService.changePassword(userId, PASSWORD, "changed123");
+
+        assertThat(authTokenCache.get(token)).isEmpty();
+        assertThat(authService.requirePrincipal(token).id()).isEqualTo(userId);
+    }
+
+    @Test
+    void deleteUserEvictsTheCachedPrincipalImmediately() {
+        Long userId = register("cache-delete", UserRole.USER).getId();
+        String token = cachedLogin("cache-delete");
+
+        userService.deleteUser(userId);
+
+        assertThat(authTokenCache.get(token)).isEmpty();
+        assertThatThrownBy(() -> authService.requirePrincipal(token)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void approvedCertificationIsVisibleOnTheNextRequest() {
+        Long userId = register("cache-certification", UserRole.USER).getId();
+        String token = cachedLogin("cache-certification");
+        assertThat(authService.requirePrincipal(token).role()).isEqualTo(UserRole.USER);
+
+        LandlordCertification certification = certificationService.submitCertification(userId,
+                List.of("https://example.com/license.png"), "房东认证");
+        certificationService.reviewCertification(adminId, certification.getId(),
+                LandlordCertificationStatus.APPROVED, "通过");
+
+        assertThat(authTokenCache.get(token)).isEmpty();
+        assertThat(authService.requirePrincipal(token).role()).isEqualTo(UserRole.LANDLORD);
+    }
+
+    @Test
+    void loadStartedBeforeAnInvalidationIsNotCached() {
+        AuthTokenCache cache = new AuthTokenCache(Duration.ofMinutes(5), 100);
+        AuthPrincipal principal = new AuthPrincipal(42L, "stale", "旧快照", null, UserRole.USER);
+
+        // 读库前记下代数，读库期间发生失效，随后写回的旧快照应被丢弃
+        long observed = cache.generation();
+        cache.invalidateUser(7L);
+        cache.put("stale-token", principal, null, observed);
+        assertThat(cache.get("stale-token")).isEmpty();
+
+        observed = cache.generation();
+        cache.invalidateToken("other-token", null);
+        cache.put("stale-token", principal, null, observed);
+        assertThat(cache.get("stale-token")).isEmpty();
+
+        cache.put("stale-token", principal, null, cache.generation());
+        assertThat(cache.get("stale-token")).contains(principal);
+    }
+
+    @Test
+    void loadDuringTheInvalidatingTransactionIsEvictedOnCommit() {
+        AuthTokenCache cache = new AuthTokenCache(Duration.ofMinutes(5), 100);
+        AuthPrincipal principal = new AuthPrincipal(42L, "stale", "旧快照", null, UserRole.USER);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cache.invalidateUser(42L);
+            // 事务未提交时其他请求读到的仍是旧数据，代数已对上也能写入缓存
+            cache.put("stale-token", principal, null, cache.generation());
+            assertThat(cache.get("stale-token")).isPresent();
+        });
+
+        assertThat(cache.get("stale-token")).isEmpty();
+    }
+
+    private User register(String username, UserRole role) {
+        return authService.register(username, PASSWORD, "缓存测试", "13900000000", role);
+    }
+
+    private String cachedLogin(String username) {
+        String token = authService.login(username, PASSWORD).getToken();
+        authService.requirePrincipal(token);
+        assertThat(authTokenCache.get(token)).isPresent();
+        return token;
+    }
+}
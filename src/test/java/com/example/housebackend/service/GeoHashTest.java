@@ -0,0 +1,49 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.housebackend.exception.BadRequestException;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GeoHashTest {
+
+    @Test
+    void encodesKnownPoints() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(31.2304, 121.4737)).hasSize(GeoHash.PRECISION).startsWith("wtw3s");
+    }
+
+    @Test
+    void measuresGreatCircleDistance() {
+        assertThat(GeoHash.distanceMeters(31.2304, 121.4737, 31.2304, 121.4737)).isZero();
+        assertThat(GeoHash.distanceMeters(31.2304, 121.4737, 31.2400, 121.4900)).isBetween(1870.0, 1890.0);
+    }
+
+    @Test
+    void coverContainsEveryPointOfTheBox() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            double minLat = random.nextDouble() * 170 - 85;
+            double minLng = random.nextDouble() * 350 - 175;
+            double height = random.nextDouble() * Math.pow(10, -random.nextInt(5));
+            double width = random.nextDouble() * Math.pow(10, -random.nextInt(5));
+            Set<String> cells = GeoHash.cover(minLat, minLat + height, minLng, minLng + width);
+            String point = GeoHash.encode(minLat + random.nextDouble() * height, minLng + random.nextDouble() * width);
+
+            assertThat(cells).hasSizeLessThanOrEqualTo(32).anyMatch(point::startsWith);
+        }
+    }
+
+    @Test
+    void distanceCursorRoundTrips() {
+        DistanceCursor cursor = new DistanceCursor(1234.5678, 42L);
+
+        assertThat(DistanceCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(cursor.precedes(1234.5678, 43L)).isTrue();
+        assertThat(cursor.precedes(1234.5678, 42L)).isFalse();
+        assertThatThrownBy(() -> DistanceCursor.decode("bm9wZQ")).isInstanceOf(BadRequestException.class);
+    }
+}
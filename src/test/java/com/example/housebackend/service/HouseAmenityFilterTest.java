@@ -0,0 +1,69 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.repository.HouseRepository;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HouseAmenityFilterTest {
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private AmenityDictionary amenityDictionary;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void seededHousesAreBackfilledOnStartup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertThat(houseRepository.findAll())
+                        .filteredOn(house -> !house.getAmenities().isEmpty())
+                        .allSatisfy(house -> assertThat(house.getAmenityMask())
+                                .isEqualTo(amenityDictionary.register(house.getAmenities()))));
+    }
+
+    @Test
+    void requiresEveryRequestedAmenity() {
+        assertThat(titles(Set.of("智能门锁"))).containsExactlyInAnyOrder("市中心景观LOFT", "高新区精装两居室");
+        assertThat(titles(Set.of("智能门锁", "地暖"))).containsExactly("市中心景观LOFT");
+        assertThat(titles(Set.of("江景阳台", " 车位 "))).containsExactly("滨江花园三居室");
+        assertThat(titles(Set.of("智能门锁", "车位"))).isEmpty();
+        assertThat(titles(Set.of("不存在的配套"))).isEmpty();
+    }
+
+    @Test
+    void cursorSearchAppliesTheSameMask() {
+        List<House> houses = new TransactionTemplate(transactionManager).execute(status ->
+                houseService.searchAfter(criteria(Set.of("车位")), null, 10).items());
+
+        assertThat(houses).extracting(House::getTitle).containsExactly("滨江花园三居室");
+    }
+
+    private List<String> titles(Set<String> amenities) {
+        return houseService.search(criteria(amenities), PageRequest.of(0, 50)).getContent().stream()
+                .map(House::getTitle)
+                .toList();
+    }
+
+    private static HouseSearchCriteria criteria(Set<String> amenities) {
+        return new HouseSearchCriteria(null, null, null, null, null, null, null, null, amenities, null, null, null);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.domain.order.RentalOrder;
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.repository.HouseRepository;
+import com.example.housebackend.repository.RentalOrderRepository;
+import com.example.housebackend.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HouseBookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private RentalOrderService rentalOrderService;
+
+    @Autowired
+    private HouseBookingLocks bookingLocks;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private RentalOrderRepository rentalOrderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentConfirmsNeverDoubleBookOneHouse() throws Exception {
+        House house = newHouse();
+        Long landlordId = transactionTemplate.execute(status ->
+                houseRepository.findById(house.getId()).orElseThrow().getOwner().getId());
+        Long tenantId = userRepository.findByUsername("tenant").orElseThrow().getId();
+        LocalDate base = LocalDate.now().plusDays(30);
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            LocalDate start = base.plusDays(i % 16);
+            orderIds.add(rentalOrderService.createOrder(tenantId, house.getId(), start, start.plusDays(10)).getId());
+        }
+        List<Long> attempts = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            attempts.addAll(orderIds);
+        }
+        Collections.shuffle(attempts);
+
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(attempts.size(), i -> () -> {
+            try {
+                rentalOrderService.confirmOrder(landlordId, attempts.get(i));
+            } catch (BadRequestException ex) {
+                rejected.incrementAndGet();
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                conflicts.incrementAndGet();
+            }
+            return null;
+        });
+
+        List<RentalOrder> confirmed = transactionTemplate.execute(status ->
+                rentalOrderRepository.findAllById(orderIds).stream()
+                        .filter(order -> order.getStatus() == RentalOrderStatus.CONFIRMED)
+                        .toList());
+        assertThat(confirmed).isNotEmpty();
+        assertThat(rejected.get()).isPositive();
+        for (RentalOrder a : confirmed) {
+            for (RentalOrder b : confirmed) {
+                if (!a.getId().equals(b.getId())) {
+                    boolean overlaps = !a.getStartDate().isAfter(b.getEndDate())
+                            && !b.getStartDate().isAfter(a.getEndDate());
+                    assertThat(overlaps).as("订单 %d 与 %d 租期重叠", a.getId(), b.getId()).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    void distinctHousesHoldTheirLocksAtTheSameTime() throws Exception {
+        // 每个线程持锁后在屏障处等待其他线程，只有不同房源互不阻塞时屏障才能凑齐
+        CyclicBarrier allHolding = new CyclicBarrier(THREADS);
+        runConcurrently(THREADS, thread -> () -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookingLocks.lockUntilCompletion(2_000_000L + thread);
+                try {
+                    allHolding.await(10, TimeUnit.SECONDS);
+                } catch (Exception ex) {
+                    throw new IllegalStateException("不同房源的预订锁互相阻塞", ex);
+                }
+            });
+            return null;
+        });
+    }
+
+    @Test
+    void sameHouseWaitsForTheHolderToComplete() throws Exception {
+        Long houseId = 3_000_000L;
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean secondAcquired = new AtomicBoolean();
+        long contendedBefore = bookingLocks.metrics().contended();
+
+        Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingLocks.lockUntilCompletion(houseId);
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holding.await();
+        Future<?> waiter = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingLocks.lockUntilCompletion(houseId);
+            secondAcquired.set(true);
+        }));
+        while (bookingLocks.metrics().contended() == contendedBefore) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(secondAcquired).isFalse();
+        release.countDown();
+        holder.get();
+        waiter.get();
+        assertThat(secondAcquired).isTrue();
+    }
+
+    private void runConcurrently(int tasks, IntFunction<Callable<Void>> task) throws Exception {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            Callable<Void> body = task.apply(i);
+            futures.add(executor.submit(() -> {
+                ready.await();
+                return body.call();
+            }));
+        }
+        ready.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    private House newHouse() {
+        return transactionTemplate.execute(status -> {
+            House template = houseRepository.findAll().get(0);
+            House house = new House();
+            house.setTitle("并发预订测试房源");
+            house.setRentPrice(BigDecimal.valueOf(4000));
+            house.setOwner(template.getOwner());
+            house.setRegion(template.getRegion());
+            house.setSubwayLine(template.getSubwayLine());
+            house.setStatus(HouseStatus.PUBLISHED);
+            return houseRepository.save(house);
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.dto.house.BookedRange;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HouseBookingsTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private HouseAvailabilityIndex.HouseBookings bookings;
+
+    @BeforeEach
+    void setUp() {
+        bookings = new HouseAvailabilityIndex.HouseBookings(System.nanoTime());
+        book(1L, BASE, BASE.plusDays(9));
+    }
+
+    @Test
+    void rangesTouchingAnEdgeOverlapBecauseBothEndsAreInclusive() {
+        assertThat(bookings.hasOverlap(BASE.plusDays(9), BASE.plusDays(20), null)).isTrue();
+        assertThat(bookings.hasOverlap(BASE.minusDays(5), BASE, null)).isTrue();
+        assertThat(bookings.hasOverlap(BASE.plusDays(10), BASE.plusDays(20), null)).isFalse();
+        assertThat(bookings.hasOverlap(BASE.minusDays(5), BASE.minusDays(1), null)).isFalse();
+    }
+
+    @Test
+    void longLeaseIsFoundBehindManyShortOnesStartingLater() {
+        book(2L, BASE.plusDays(30), BASE.plusDays(400));
+        for (long i = 0; i < 50; i++) {
+            LocalDate start = BASE.plusDays(35 + i * 3);
+            book(100L + i, start, start.plusDays(1));
+        }
+
+        // 查询区间落在长租期中段，从查询结束日往前要先越过全部短租才能遇到长租
+        assertThat(bookings.hasOverlap(BASE.plusDays(200), BASE.plusDays(210), null)).isTrue();
+        assertThat(bookings.hasOverlap(BASE.plusDays(401), BASE.plusDays(499), null)).isFalse();
+        assertThat(bookings.between(BASE.plusDays(200), BASE.plusDays(210)))
+                .containsExactly(new BookedRange(BASE.plusDays(30), BASE.plusDays(400)));
+    }
+
+    @Test
+    void excludedOrderDoesNotConflictWithItself() {
+        assertThat(bookings.hasOverlap(BASE.plusDays(2), BASE.plusDays(5), 1L)).isFalse();
+
+        book(2L, BASE.plusDays(5), BASE.plusDays(15));
+        assertThat(bookings.hasOverlap(BASE.plusDays(2), BASE.plusDays(5), 1L)).isTrue();
+    }
+
+    @Test
+    void replacingOrRemovingAnOrderDropsItsOldRange() {
+        book(1L, BASE.plusDays(60), BASE.plusDays(70));
+        assertThat(bookings.hasOverlap(BASE, BASE.plusDays(9), null)).isFalse();
+        assertThat(bookings.hasOverlap(BASE.plusDays(65), BASE.plusDays(66), null)).isTrue();
+
+        bookings.replace(1L, null);
+        assertThat(bookings.hasOverlap(BASE.plusDays(65), BASE.plusDays(66), null)).isFalse();
+    }
+
+    private void book(Long orderId, LocalDate startDate, LocalDate endDate) {
+        bookings.replace(orderId, new HouseAvailabilityIndex.Booking(orderId, startDate, endDate));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * 手动运行的分面基准：向 HouseFacetIndex 写入指定数量的随机房源，统计不同过滤条件下一次分面计算的平均耗时。
+ * 参数：[房源数量] [轮次]，默认 1000000 200。
+ */
+public final class HouseFacetBenchmark {
+
+    private static final String[] LAYOUTS = {"1室1厅1卫", "2室1厅1卫", "2室2厅1卫", "3室2厅2卫", "4室2厅2卫"};
+
+    private HouseFacetBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int houses = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        AmenityDictionary amenities = new AmenityDictionary(null, null, null) {
+            @Override
+            public String nameOf(int bit) {
+                return "配套" + bit;
+            }
+        };
+        HouseFacetIndex index = new HouseFacetIndex(null, amenities);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate today = LocalDate.now();
+        for (long id = 1; id <= houses; id++) {
+            index.apply(new HouseFacetIndex.FacetRow(id, (long) random.nextInt(20), "地区", (long) random.nextInt(12),
+                    "线路", LAYOUTS[random.nextInt(LAYOUTS.length)], BigDecimal.valueOf(1000 + random.nextInt(15_000)),
+                    20 + random.nextInt(180) + 0.5, today.plusDays(random.nextInt(60)),
+                    random.nextLong() & 0xFFFFL, true));
+        }
+        System.out.printf("houses=%d rounds=%d%n", index.size(), rounds);
+        System.out.println("variant                     avg_ms        total");
+        measure("no filter", rounds, () -> index.facets(HouseSearchCriteria.none(), 0, null).total());
+        HouseSearchCriteria ranged = new HouseSearchCriteria(3L, null, null, BigDecimal.valueOf(3000),
+                BigDecimal.valueOf(6000), 50D, 120D, null, null, today.plusDays(30), null, null);
+        measure("region+price+area", rounds, () -> index.facets(ranged, 0, null).total());
+        measure("region+price+amenities", rounds, () -> index.facets(ranged, 0b101, null).total());
+    }
+
+    private static void measure(String name, int rounds, LongSupplier task) {
+        long total = 0;
+        for (int i = 0; i < rounds / 2; i++) {
+            total = task.getAsLong();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.getAsLong();
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000D / rounds;
+        System.out.printf("%-26s %8.2f %12d%n", name, avgMillis, total);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.dto.house.FacetCount;
+import com.example.housebackend.dto.house.HouseFacetsResponse;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HouseFacetIndexTest {
+
+    private HouseFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        AmenityDictionary amenities = new AmenityDictionary(null, null, null) {
+            @Override
+            public String nameOf(int bit) {
+                return bit == 0 ? "智能门锁" : "车位";
+            }
+        };
+        index = new HouseFacetIndex(null, amenities);
+        add(1L, 1L, "市中心", "1室1厅", 2500, 0b01);
+        add(2L, 1L, "市中心", "2室1厅", 4500, 0b11);
+        add(3L, 2L, "高新区", "2室1厅", 4800, 0b10);
+        add(4L, 2L, "高新区", "3室2厅", 12000, 0b00);
+    }
+
+    @Test
+    void countsEveryFacetWithoutFilters() {
+        HouseFacetsResponse facets = index.facets(HouseSearchCriteria.none(), 0, null);
+
+        assertThat(facets.total()).isEqualTo(4);
+        assertThat(counts(facets.regions())).containsExactlyInAnyOrder("1=2", "2=2");
+        assertThat(counts(facets.layouts())).containsExactly("2室1厅=2", "1室1厅=1", "3室2厅=1");
+        assertThat(counts(facets.priceRanges())).containsExactly("2000-3000=1", "4000-5000=2", "10000-=1");
+        assertThat(counts(facets.amenities())).containsExactlyInAnyOrder("智能门锁=2", "车位=2");
+    }
+
+    @Test
+    void facetIgnoresItsOwnFilterButHonoursTheOthers() {
+        HouseSearchCriteria criteria = new HouseSearchCriteria(1L, null, null, null, BigDecimal.valueOf(5000),
+                null, null, null, null, null, null, null);
+        HouseFacetsResponse facets = index.facets(criteria, 0, null);
+
+        assertThat(facets.total()).isEqualTo(2);
+        // 地区分面不受 regionId 限制，但仍受租金上限限制
+        assertThat(counts(facets.regions())).containsExactlyInAnyOrder("1=2", "2=1");
+        // 价格分面不受租金条件限制，但仍受地区限制
+        assertThat(counts(facets.priceRanges())).containsExactly("2000-3000=1", "4000-5000=1");
+        assertThat(counts(facets.layouts())).containsExactlyInAnyOrder("1室1厅=1", "2室1厅=1");
+    }
+
+    @Test
+    void amenitiesAndKeywordHitsNarrowTheCandidates() {
+        assertThat(index.facets(HouseSearchCriteria.none(), 0b10, null).total()).isEqualTo(2);
+        assertThat(index.facets(HouseSearchCriteria.none(), 0b11, null).total()).isEqualTo(1);
+        assertThat(index.facets(HouseSearchCriteria.none(), 0, List.of(3L, 4L, 99L)).total()).isEqualTo(2);
+    }
+
+    @Test
+    void incrementalUpdatesMoveAndRemoveRows() {
+        add(1L, 2L, "高新区", "1室1厅", 2500, 0b01);
+        index.apply(HouseFacetIndex.FacetRow.removed(4L));
+
+        HouseFacetsResponse facets = index.facets(HouseSearchCriteria.none(), 0, null);
+        assertThat(facets.total()).isEqualTo(3);
+        assertThat(counts(facets.regions())).containsExactlyInAnyOrder("1=1", "2=2");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private void add(Long id, Long regionId, String regionName, String layout, int rent, long amenityMask) {
+        index.apply(new HouseFacetIndex.FacetRow(id, regionId, regionName, null, null, layout,
+                BigDecimal.valueOf(rent), 60.0, LocalDate.now(), amenityMask, true));
+    }
+
+    private static List<String> counts(List<FacetCount> items) {
+        return items.stream().map(item -> item.value() + "=" + item.count()).toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.domain.common.MediaType;
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseMedia;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.dto.DtoMapper;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.repository.HouseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HouseFetchPlanTest {
+
+    private static final int EXTRA_HOUSES = 30;
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private StatementCounter statements;
+
+    @BeforeAll
+    void seedHouses() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statements = new StatementCounter(entityManagerFactory);
+        transactionTemplate.executeWithoutResult(status -> {
+            House template = houseRepository.findAll().get(0);
+            List<House> houses = new ArrayList<>();
+            for (int i = 0; i < EXTRA_HOUSES; i++) {
+                House house = new House();
+                house.setTitle("批量房源 " + i);
+                house.setRentPrice(BigDecimal.valueOf(3000 + i));
+                house.setOwner(template.getOwner());
+                house.setRegion(template.getRegion());
+                house.setSubwayLine(template.getSubwayLine());
+                house.setStatus(HouseStatus.PUBLISHED);
+                house.setRecommended(i % 3 == 0);
+                house.setAmenities(Set.of("空调", "洗衣机", "WIFI-" + i));
+                List<HouseMedia> media = new ArrayList<>();
+                for (int m = 0; m < 3; m++) {
+                    HouseMedia item = new HouseMedia();
+                    item.setMediaType(MediaType.IMAGE);
+                    item.setUrl("/uploads/house-" + i + "-" + m + ".jpg");
+                    item.setSortOrder(m);
+                    media.add(item);
+                }
+                house.replaceMedia(media);
+                houses.add(house);
+            }
+            houseRepository.saveAll(houses);
+        });
+    }
+
+    @Test
+    void searchPageUsesFixedStatementCount() {
+        long small = countStatements(() -> houseService.search(HouseSearchCriteria.none(),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent());
+        long large = countStatements(() -> houseService.search(HouseSearchCriteria.none(),
+                PageRequest.of(0, 25, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent());
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void cursorSearchUsesFixedStatementCount() {
+        long small = countStatements(() -> houseService.searchAfter(HouseSearchCriteria.none(), null, 5).items());
+        long large = countStatements(() -> houseService.searchAfter(HouseSearchCriteria.none(), null, 25).items());
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void availabilityFilterIsOneAntiJoin() {
+        LocalDate from = LocalDate.now().plusDays(7);
+        LocalDate to = from.plusDays(30);
+        HouseSearchCriteria criteria = new HouseSearchCriteria(null, null, null, null, null, null, null, null, null, null,
+                from, to);
+        long small = countStatements(() -> houseService.searchAfter(criteria, null, 5).items());
+        long large = countStatements(() -> houseService.searchAfter(criteria, null, 25).items());
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void priceRangeIsAppliedInTheQuery() {
+        HouseSearchCriteria criteria = new HouseSearchCriteria(null, null, HouseStatus.PUBLISHED,
+                BigDecimal.valueOf(3010), BigDecimal.valueOf(3019), null, null, null, null, null, null, null);
+        List<House> houses = transactionTemplate.execute(status -> houseService.searchAfter(criteria, null, 50).items());
+
+        assertThat(houses).isNotEmpty();
+        assertThat(houses).allSatisfy(house -> assertThat(house.getRentPrice())
+                .isBetween(BigDecimal.valueOf(3010), BigDecimal.valueOf(3019)));
+    }
+
+    @Test
+    void ownerAndHomepageListsUseFixedStatementCount() {
+        Long ownerId = transactionTemplate.execute(status -> houseRepository.findAll().get(0).getOwner().getId());
+
+        long small = countStatements(() -> houseService.listByOwner(ownerId, PageRequest.of(0, 5)).getContent());
+        long large = countStatements(() -> houseService.listByOwner(ownerId, PageRequest.of(0, 25)).getContent());
+        assertThat(large).isEqualTo(small);
+
+        assertThat(countStatements(houseService::latestHouses)).isLessThanOrEqualTo(3);
+        assertThat(countStatements(houseService::recommendedHouses)).isLessThanOrEqualTo(3);
+        assertThat(countStatements(() -> houseService.randomRecommended(8))).isLessThanOrEqualTo(4);
+    }
+
+    // 在事务内映射为响应，懒加载的关联也计入语句数
+    private long countStatements(Supplier<List<House>> query) {
+        return transactionTemplate.execute(status -> statements.count(() -> query.get().stream()
+                .map(DtoMapper::toHouse)
+                .toList()));
+    }
+}
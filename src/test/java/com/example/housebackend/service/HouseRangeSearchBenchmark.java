@@ -0,0 +1,141 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.HousebackendApplication;
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import com.example.housebackend.repository.HouseRepository;
+import com.example.housebackend.repository.HouseSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 手动运行的区间搜索基准：向内存 H2 写入指定数量的房源，对比旧的 ":param is null or ..." 静态查询与
+ * Specification 动态查询在几组典型过滤条件下取首页（含总数）的耗时。参数：[房源数量] [轮次]，默认 1000000 5。
+ */
+public final class HouseRangeSearchBenchmark {
+
+    private static final String[] LAYOUTS = {"一室一厅", "两室一厅", "两室两厅", "三室一厅", "三室两厅", "四室两厅"};
+
+    private static final String LEGACY_WHERE = " from House h where (:regionId is null or h.region.id = :regionId) "
+            + "and (:status is null or h.status = :status) "
+            + "and (:minPrice is null or h.rentPrice >= :minPrice) and (:maxPrice is null or h.rentPrice <= :maxPrice) "
+            + "and (:minArea is null or h.area >= :minArea) and (:maxArea is null or h.area <= :maxArea) "
+            + "and (:layout is null or h.layout = :layout)";
+
+    private HouseRangeSearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int houses = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(HousebackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:range_benchmark;MODE=MYSQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed(jdbcTemplate, houses);
+            jdbcTemplate.execute("analyze");
+            HouseRepository houseRepository = context.getBean(HouseRepository.class);
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            transactionTemplate.setReadOnly(true);
+            Long regionId = jdbcTemplate.queryForObject("select min(id) from regions", Long.class);
+
+            List<HouseSearchCriteria> cases = List.of(
+                    criteria(null, BigDecimal.valueOf(3000), BigDecimal.valueOf(3200), null, null, null),
+                    criteria(regionId, BigDecimal.valueOf(2000), BigDecimal.valueOf(4000), null, null, null),
+                    criteria(null, null, BigDecimal.valueOf(5000), null, null, "两室一厅"),
+                    criteria(null, null, null, 90D, 95D, null));
+
+            System.out.printf("houses=%d rounds=%d%n", jdbcTemplate.queryForObject("select count(*) from houses", Long.class), rounds);
+            System.out.println("case  variant                   avg_ms        total");
+            for (int i = 0; i < cases.size(); i++) {
+                HouseSearchCriteria criteria = cases.get(i);
+                measure(i + 1, "is null or (before)", rounds,
+                        () -> transactionTemplate.execute(status -> legacy(entityManager, criteria)));
+                measure(i + 1, "specification (after)", rounds,
+                        () -> transactionTemplate.execute(status -> houseRepository.findAll(
+                                HouseSpecifications.matching(criteria, 0L), page()).getTotalElements()));
+            }
+        }
+    }
+
+    private static HouseSearchCriteria criteria(Long regionId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                Double minArea, Double maxArea, String layout) {
+        return new HouseSearchCriteria(regionId, null, HouseStatus.PUBLISHED, minPrice, maxPrice,
+                minArea, maxArea, layout, null, null, null, null);
+    }
+
+    private static PageRequest page() {
+        return PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    private static long legacy(EntityManager entityManager, HouseSearchCriteria criteria) {
+        TypedQuery<House> select = bind(entityManager.createQuery(
+                "select h" + LEGACY_WHERE + " order by h.createdAt desc", House.class), criteria);
+        select.setMaxResults(20).getResultList();
+        return bind(entityManager.createQuery("select count(h)" + LEGACY_WHERE, Long.class), criteria)
+                .getSingleResult();
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, HouseSearchCriteria criteria) {
+        return query.setParameter("regionId", criteria.regionId())
+                .setParameter("status", criteria.status())
+                .setParameter("minPrice", criteria.minPrice())
+                .setParameter("maxPrice", criteria.maxPrice())
+                .setParameter("minArea", criteria.minArea())
+                .setParameter("maxArea", criteria.maxArea())
+                .setParameter("layout", criteria.layout());
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int houses) {
+        Long ownerId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+        List<Long> regionIds = jdbcTemplate.queryForList("select id from regions", Long.class);
+        Timestamp now = Timestamp.from(Instant.now());
+        int batchSize = 5_000;
+        for (int offset = 0; offset < houses; offset += batchSize) {
+            int size = Math.min(batchSize, houses - offset);
+            List<Object[]> rows = new ArrayList<>(size);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < size; i++) {
+                Long regionId = regionIds.isEmpty() ? null : regionIds.get(random.nextInt(regionIds.size()));
+                String status = random.nextInt(5) == 0 ? "DRAFT" : "PUBLISHED";
+                rows.add(new Object[]{"基准房源 " + (offset + i), 1000 + random.nextInt(15_000),
+                        20 + random.nextInt(180) + random.nextInt(10) / 10D, LAYOUTS[random.nextInt(LAYOUTS.length)],
+                        status, false, now, now, ownerId, regionId});
+            }
+            jdbcTemplate.batchUpdate("insert into houses (title, rent_price, area, layout, status, recommended, "
+                    + "created_at, updated_at, owner_id, region_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    private static void measure(int caseNo, String name, int rounds, Supplier<Long> task) {
+        long total = task.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.get();
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000D / rounds;
+        System.out.printf("%-5d %-24s %8.1f %12d%n", caseNo, name, avgMillis, total);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.domain.house.HouseStatus;
+import com.example.housebackend.dto.house.HouseSearchCriteria;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HouseTextIndexTest {
+
+    private HouseTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HouseTextIndex(null);
+        add(1L, "朝阳区精装两居室", "近地铁，采光好", "望京街道 10 号", HouseStatus.PUBLISHED, "空调", "洗衣机");
+        add(2L, "海淀一居", "安静小区，精装修，拎包入住", "中关村大街", HouseStatus.PUBLISHED, "WiFi");
+        add(3L, "精装公寓 Loft", "精装精装，独立卫浴", "朝阳区三里屯", HouseStatus.DRAFT, "空调");
+    }
+
+    @Test
+    void tokenizesHanIntoBigramsAndLatinIntoWords() {
+        assertThat(HouseTextIndex.tokenize("精装两居 WiFi-5G"))
+                .containsExactly("精装", "装两", "两居", "wifi", "5g");
+        assertThat(HouseTextIndex.tokenize("ＬＯＦＴ 房")).containsExactly("loft", "房");
+        assertThat(HouseTextIndex.tokenize("  ")).isEmpty();
+    }
+
+    @Test
+    void ranksByBm25AndAppliesStructuredFilters() {
+        assertThat(index.search("精装", HouseSearchCriteria.none(), 0L)).containsExactly(3L, 1L, 2L);
+        assertThat(index.search("精装", new HouseSearchCriteria(null, null, HouseStatus.PUBLISHED,
+                null, null, null, null, null, null, null, null, null), 0L)).containsExactly(1L, 2L);
+        assertThat(index.search("朝阳 空调", HouseSearchCriteria.none(), 0L)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("wifi", HouseSearchCriteria.none(), 0L)).containsExactly(2L);
+        assertThat(index.search("不存在的词", HouseSearchCriteria.none(), 0L)).isEmpty();
+    }
+
+    @Test
+    void incrementalUpdatesReplaceAndRemoveDocuments() {
+        index.apply(2L, HouseTextIndex.toIndexed(2L, house("海淀一居", "简装", "中关村大街", HouseStatus.PUBLISHED)));
+        assertThat(index.search("精装", HouseSearchCriteria.none(), 0L)).doesNotContain(2L);
+        assertThat(index.search("简装", HouseSearchCriteria.none(), 0L)).containsExactly(2L);
+
+        index.apply(1L, null);
+        assertThat(index.search("朝阳", HouseSearchCriteria.none(), 0L)).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private void add(Long id, String title, String description, String address, HouseStatus status, String... amenities) {
+        House house = house(title, description, address, status, amenities);
+        index.apply(id, HouseTextIndex.toIndexed(id, house));
+    }
+
+    private static House house(String title, String description, String address, HouseStatus status, String... amenities) {
+        House house = new House();
+        house.setTitle(title);
+        house.setDescription(description);
+        house.setAddress(address);
+        house.setStatus(status);
+        house.setAmenities(Set.of(amenities));
+        return house;
+    }
+}
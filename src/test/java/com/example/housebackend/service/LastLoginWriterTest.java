@@ -0,0 +1,156 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class LastLoginWriterTest {
+
+    private static final int USERS = 40;
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private LastLoginWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:last_login_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table users (id bigint primary key, last_login_at timestamp(6) with time zone)");
+        for (long id = 1; id <= USERS; id++) {
+            jdbcTemplate.update("insert into users (id) values (?)", id);
+        }
+        writer = new LastLoginWriter(jdbcTemplate, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("shutdown");
+    }
+
+    @Test
+    void coalescesUpdatesToLatestValuePerUser() {
+        writer.record(1L, BASE.plusSeconds(10));
+        writer.record(1L, BASE.plusSeconds(30));
+        writer.record(1L, BASE.plusSeconds(20));
+        writer.record(2L, BASE.plusSeconds(5));
+
+        writer.flush();
+
+        assertThat(lastLoginAt(1L)).isEqualTo(BASE.plusSeconds(30));
+        assertThat(lastLoginAt(2L)).isEqualTo(BASE.plusSeconds(5));
+        assertThat(lastLoginAt(3L)).isNull();
+        assertThat(writer.metrics().pending()).isZero();
+        assertThat(writer.metrics().flushedRows()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotOverwriteNewerValueInDatabase() {
+        jdbcTemplate.update("update users set last_login_at = ? where id = 1", Timestamp.from(BASE.plusSeconds(60)));
+
+        writer.record(1L, BASE.plusSeconds(30));
+        writer.flush();
+
+        assertThat(lastLoginAt(1L)).isEqualTo(BASE.plusSeconds(60));
+    }
+
+    @Test
+    void concurrentRecordsAreNotLostWhileFlushing() throws Exception {
+        int threads = 8;
+        int rounds = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<?>> recorders = new ArrayList<>();
+        try {
+            Future<?> flusher = pool.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    writer.flush();
+                }
+                return null;
+            });
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                recorders.add(pool.submit(() -> {
+                    start.await();
+                    for (int round = 1; round <= rounds; round++) {
+                        for (long id = 1; id <= USERS; id++) {
+                            writer.record(id, BASE.plusMillis(round * 100L + thread));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> recorder : recorders) {
+                recorder.get(30, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        writer.flush();
+
+        Instant expected = BASE.plusMillis(rounds * 100L + threads - 1);
+        for (long id = 1; id <= USERS; id++) {
+            assertThat(lastLoginAt(id)).as("user %d", id).isEqualTo(expected);
+        }
+        assertThat(writer.metrics().pending()).isZero();
+        assertThat(writer.metrics().failures()).isZero();
+    }
+
+    @Test
+    void closeFlushesPendingAndLaterRecordsWriteThrough() {
+        writer.record(1L, BASE.plusSeconds(1));
+
+        writer.close();
+
+        assertThat(lastLoginAt(1L)).isEqualTo(BASE.plusSeconds(1));
+
+        writer.record(2L, BASE.plusSeconds(2));
+
+        assertThat(lastLoginAt(2L)).isEqualTo(BASE.plusSeconds(2));
+    }
+
+    @Test
+    void failedBatchIsRetriedOnNextFlush() {
+        jdbcTemplate.execute("alter table users rename to users_backup");
+        writer.record(1L, BASE.plusSeconds(1));
+
+        writer.flush();
+
+        assertThat(writer.metrics().failures()).isEqualTo(1);
+        assertThat(writer.metrics().pending()).isEqualTo(1);
+
+        jdbcTemplate.execute("alter table users_backup rename to users");
+        writer.flush();
+
+        assertThat(lastLoginAt(1L)).isEqualTo(BASE.plusSeconds(1));
+        assertThat(writer.metrics().pending()).isZero();
+    }
+
+    private Instant lastLoginAt(long id) {
+        Timestamp value = jdbcTemplate.queryForObject(
+                "select last_login_at from users where id = ?", Timestamp.class, id);
+        return value == null ? null : value.toInstant();
+    }
+}
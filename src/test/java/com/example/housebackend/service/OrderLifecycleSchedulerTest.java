@@ -0,0 +1,213 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.domain.order.RentalOrderStatus;
+import com.example.housebackend.repository.RentalOrderRepository;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderLifecycleSchedulerTest {
+
+    // 订单日期远早于其他测试的数据，按开始日期排序时排在最前，每个用例用不同的下单日期隔离汇总行
+    private static final LocalDate START = LocalDate.of(1996, 3, 1);
+    private static final LocalDate FAR_END = LocalDate.of(2099, 12, 31);
+
+    @Autowired
+    private RentalOrderRepository rentalOrderRepository;
+
+    @Autowired
+    private SchedulerLeaseService leaseService;
+
+    @Autowired
+    private StatisticsRollupService rollupService;
+
+    @Autowired
+    private AdminStatsPublisher statsPublisher;
+
+    @Autowired
+    private HouseAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Runnable afterConfirmedFind;
+    private OrderLifecycleScheduler scheduler;
+    private SchedulerLeaseService otherNode;
+
+    @BeforeEach
+    void setUp() {
+        afterConfirmedFind = null;
+        scheduler = new OrderLifecycleScheduler(interceptedRepository(), leaseService, rollupService, statsPublisher,
+                availabilityIndex, messagingTemplate, transactionManager, 2, 50, Duration.ofMinutes(2));
+        otherNode = new SchedulerLeaseService(jdbcTemplate);
+    }
+
+    @Test
+    void runMovesDueOrdersWritesRollupDeltasAndEvictsTheIndex() {
+        LocalDate createdOn = LocalDate.of(1996, 2, 3);
+        Long houseId = houseId();
+        Long pending = seedOrder(houseId, RentalOrderStatus.PENDING, START, START.plusMonths(6), createdOn);
+        Long confirmedA = seedOrder(houseId, RentalOrderStatus.CONFIRMED, START.plusMonths(1), FAR_END, createdOn);
+        Long confirmedB = seedOrder(houseId, RentalOrderStatus.CONFIRMED, START.plusMonths(1), FAR_END, createdOn);
+        Long active = seedOrder(houseId, RentalOrderStatus.ACTIVE, START, START.plusDays(30), createdOn);
+        Map<String, Long> before = dailyTotals(createdOn);
+        // 订单由 JDBC 写入，先驱逐再预热索引；批量更新绕过实体监听器，只有提交后的驱逐能让索引看到租期结束
+        availabilityIndex.evict(houseId);
+        assertThat(availabilityIndex.hasOverlap(houseId, START.plusDays(9), START.plusDays(11), null)).isTrue();
+
+        scheduler.run();
+
+        assertThat(statusOf(pending)).isEqualTo("CANCELLED");
+        assertThat(statusOf(confirmedA)).isEqualTo("ACTIVE");
+        assertThat(statusOf(confirmedB)).isEqualTo("ACTIVE");
+        assertThat(statusOf(active)).isEqualTo("COMPLETED");
+        assertThat(deltas(before, dailyTotals(createdOn))).isEqualTo(Map.of(
+                "PENDING", -1L, "CANCELLED", 1L, "CONFIRMED", -2L, "ACTIVE", 1L, "COMPLETED", 1L));
+        assertThat(availabilityIndex.hasOverlap(houseId, START.plusDays(9), START.plusDays(11), null)).isFalse();
+        assertThat(scheduler.metrics().expired()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void partialBatchOnlyCountsOrdersThatActuallyMoved() {
+        LocalDate createdOn = LocalDate.of(1996, 2, 4);
+        Long houseId = houseId();
+        Long cancelled = seedOrder(houseId, RentalOrderStatus.CONFIRMED, START.plusMonths(2), FAR_END, createdOn);
+        Long movedA = seedOrder(houseId, RentalOrderStatus.CONFIRMED, START.plusMonths(2), FAR_END, createdOn);
+        Long movedB = seedOrder(houseId, RentalOrderStatus.CONFIRMED, START.plusMonths(2), FAR_END, createdOn);
+        Map<String, Long> before = dailyTotals(createdOn);
+        // 查出待处理订单后、批量更新前，其中一单被并发取消
+        afterConfirmedFind = () -> jdbcTemplate.update(
+                "update rental_orders set status = 'CANCELLED' where id = ?", cancelled);
+
+        scheduler.run();
+
+        assertThat(statusOf(cancelled)).isEqualTo("CANCELLED");
+        assertThat(statusOf(movedA)).isEqualTo("ACTIVE");
+        assertThat(statusOf(movedB)).isEqualTo("ACTIVE");
+        assertThat(deltas(before, dailyTotals(createdOn))).isEqualTo(Map.of("CONFIRMED", -2L, "ACTIVE", 2L));
+    }
+
+    @Test
+    void leaseHeldElsewhereSkipsTheRunAndALostLeaseStopsAfterTheCurrentBatch() {
+        LocalDate createdOn = LocalDate.of(1996, 2, 5);
+        Long houseId = houseId();
+        List<Long> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(seedOrder(houseId, RentalOrderStatus.CONFIRMED, START.plusMonths(3), FAR_END, createdOn));
+        }
+
+        assertThat(otherNode.tryAcquire(OrderLifecycleScheduler.LEASE_NAME, Duration.ofMinutes(1))).isTrue();
+        assertThat(scheduler.run()).isZero();
+        assertThat(scheduler.metrics().skipped()).isEqualTo(1);
+        assertThat(orders).allSatisfy(id -> assertThat(statusOf(id)).isEqualTo("CONFIRMED"));
+        otherNode.release(OrderLifecycleScheduler.LEASE_NAME);
+
+        // 第一批查出后租约过期并被其他节点接管：本批照常提交，之后不再续期成功
+        afterConfirmedFind = () -> {
+            jdbcTemplate.update("update scheduler_leases set lease_until = ? where name = ?",
+                    Timestamp.valueOf("2000-01-01 00:00:00"), OrderLifecycleScheduler.LEASE_NAME);
+            assertThat(otherNode.tryAcquire(OrderLifecycleScheduler.LEASE_NAME, Duration.ofMinutes(1))).isTrue();
+        };
+        scheduler.run();
+
+        assertThat(statusOf(orders.get(0))).isEqualTo("ACTIVE");
+        assertThat(statusOf(orders.get(1))).isEqualTo("ACTIVE");
+        assertThat(statusOf(orders.get(2))).isEqualTo("CONFIRMED");
+        assertThat(jdbcTemplate.queryForObject("select owner from scheduler_leases where name = ?", String.class,
+                OrderLifecycleScheduler.LEASE_NAME)).isEqualTo(otherNode.owner());
+
+        otherNode.release(OrderLifecycleScheduler.LEASE_NAME);
+        scheduler.run();
+        assertThat(statusOf(orders.get(2))).isEqualTo("ACTIVE");
+    }
+
+    // 包装仓库，在查出待生效订单后执行测试注入的并发操作
+    private RentalOrderRepository interceptedRepository() {
+        return (RentalOrderRepository) Proxy.newProxyInstance(RentalOrderRepository.class.getClassLoader(),
+                new Class<?>[]{RentalOrderRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(rentalOrderRepository, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                    Runnable hook = afterConfirmedFind;
+                    if (hook != null && method.getName().equals("findStartingBy")
+                            && args[0] == RentalOrderStatus.CONFIRMED) {
+                        afterConfirmedFind = null;
+                        hook.run();
+                    }
+                    return result;
+                });
+    }
+
+    private Long houseId() {
+        return jdbcTemplate.queryForObject("select min(id) from houses", Long.class);
+    }
+
+    private Long seedOrder(Long houseId, RentalOrderStatus status, LocalDate start, LocalDate end, LocalDate createdOn) {
+        Long landlordId = jdbcTemplate.queryForObject("select owner_id from houses where id = ?", Long.class, houseId);
+        Long tenantId = jdbcTemplate.queryForObject("select id from users where username = 'tenant'", Long.class);
+        Timestamp createdAt = Timestamp.valueOf(createdOn.atTime(12, 0));
+        jdbcTemplate.update("""
+                        insert into rental_orders (house_id, tenant_id, landlord_id, start_date, end_date, monthly_rent,
+                                                   deposit, status, termination_status, version, created_at, updated_at)
+                        values (?, ?, ?, ?, ?, 3000, 3000, ?, 'NONE', 0, ?, ?)
+                        """,
+                houseId, tenantId, landlordId, Date.valueOf(start), Date.valueOf(end), status.name(), createdAt, createdAt);
+        return jdbcTemplate.queryForObject("select max(id) from rental_orders", Long.class);
+    }
+
+    private String statusOf(Long orderId) {
+        return jdbcTemplate.queryForObject("select status from rental_orders where id = ?", String.class, orderId);
+    }
+
+    private Map<String, Long> dailyTotals(LocalDate day) {
+        Map<String, Long> totals = new HashMap<>();
+        jdbcTemplate.query("select status, total from stat_daily_orders where stat_date = ?",
+                (RowCallbackHandler) rs -> totals.put(rs.getString(1), rs.getLong(2)), Date.valueOf(day));
+        return totals;
+    }
+
+    private static Map<String, Long> deltas(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> deltas = new HashMap<>();
+        after.forEach((status, total) -> {
+            long delta = total - before.getOrDefault(status, 0L);
+            if (delta != 0) {
+                deltas.put(status, delta);
+            }
+        });
+        before.forEach((status, total) -> {
+            if (!after.containsKey(status) && total != 0) {
+                deltas.put(status, -total);
+            }
+        });
+        return deltas;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.housebackend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * 手动运行的 BCrypt 成本基准：对每个成本因子输出单次哈希延迟与满核并发下的吞吐量，
+ * 用于选择 {@code app.auth.bcrypt-strength}。
+ * 参数：[最小成本] [最大成本] [每线程迭代次数]，默认 8 12 8。
+ */
+public final class PasswordHashingBenchmark {
+
+    private PasswordHashingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int minStrength = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int maxStrength = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("threads=%d iterations/thread=%d%n", threads, iterations);
+        System.out.println("cost  encode_ms  matches_ms  throughput_ops_s");
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            String hash = encoder.encode("warmup-password");
+            encoder.matches("warmup-password", hash);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                encoder.encode("password-" + i);
+            }
+            double encodeMillis = (System.nanoTime() - start) / 1_000_000D / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                encoder.matches("warmup-password", hash);
+            }
+            double matchesMillis = (System.nanoTime() - start) / 1_000_000D / iterations;
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        encoder.matches("warmup-password", hash);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000D;
+            pool.shutdown();
+            System.out.printf("%4d  %9.1f  %10.1f  %16.1f%n",
+                    strength, encodeMillis, matchesMillis, threads * iterations / seconds);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.dto.bill.BillingRunResponse;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RentBillGeneratorTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2030, 3);
+
+    @Autowired
+    private RentBillGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesOneBillPerActiveOrderAndResumesFromCheckpoint() {
+        seedOrders(10, "ACTIVE", MONTH.atDay(1).minusMonths(1), MONTH.atEndOfMonth().plusMonths(6));
+        seedOrders(2, "ACTIVE", MONTH.atDay(1).minusYears(1), MONTH.atDay(1).minusMonths(2));
+        seedOrders(2, "PENDING", MONTH.atDay(1), MONTH.atEndOfMonth());
+
+        BillingRunResponse first = generator.generate(MONTH);
+        assertThat(first.completed()).isTrue();
+        assertThat(first.generated()).isEqualTo(10);
+        assertThat(countBills()).isEqualTo(10);
+
+        BillingRunResponse again = generator.generate(MONTH);
+        assertThat(again.generated()).isZero();
+        assertThat(countBills()).isEqualTo(10);
+
+        Long resumeAfter = jdbcTemplate.queryForObject(
+                "select max(order_id) from (select order_id from rent_bills where billing_month = ? order by order_id limit 4) t",
+                Long.class, MONTH.toString());
+        jdbcTemplate.update("delete from rent_bills where billing_month = ? and order_id > ?", MONTH.toString(), resumeAfter);
+        jdbcTemplate.update("update batch_checkpoints set last_id = ?, processed = 4, completed_at = null where job_name = ?",
+                resumeAfter, RentBillGenerator.LEASE_NAME + ":" + MONTH);
+
+        BillingRunResponse resumed = generator.generate(MONTH);
+        assertThat(resumed.completed()).isTrue();
+        assertThat(resumed.generated()).isEqualTo(6);
+        assertThat(resumed.processedOrders()).isEqualTo(10);
+        assertThat(countBills()).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(distinct order_id) from rent_bills where billing_month = ?", Long.class, MONTH.toString()))
+                .isEqualTo(10);
+    }
+
+    @Test
+    void completedMonthPicksUpOrdersActivatedLater() {
+        YearMonth month = YearMonth.of(2031, 6);
+        seedOrders(2, "ACTIVE", month.atDay(1), month.atEndOfMonth().plusMonths(3));
+        assertThat(generator.generate(month).generated()).isEqualTo(2);
+
+        seedOrders(1, "ACTIVE", month.atDay(15), month.atEndOfMonth().plusMonths(3));
+        seedOrders(1, "COMPLETED", month.atDay(10), month.atDay(20));
+        seedOrders(1, "CONFIRMED", month.atDay(25), month.atEndOfMonth().plusMonths(3));
+
+        BillingRunResponse rescan = generator.generate(month);
+        assertThat(rescan.completed()).isTrue();
+        assertThat(rescan.generated()).isEqualTo(2);
+        assertThat(generator.generate(month).generated()).isZero();
+        assertThat(countBills(month)).isEqualTo(4);
+    }
+
+    private long countBills() {
+        return countBills(MONTH);
+    }
+
+    private long countBills(YearMonth month) {
+        return jdbcTemplate.queryForObject("select count(*) from rent_bills where billing_month = ?", Long.class,
+                month.toString());
+    }
+
+    private void seedOrders(int count, String status, LocalDate start, LocalDate end) {
+        Long houseId = jdbcTemplate.queryForObject("select min(id) from houses", Long.class);
+        Long landlordId = jdbcTemplate.queryForObject("select owner_id from houses where id = ?", Long.class, houseId);
+        Long tenantId = jdbcTemplate.queryForObject("select id from users where username = 'tenant'", Long.class);
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("""
+                            insert into rental_orders (house_id, tenant_id, landlord_id, start_date, end_date, monthly_rent,
+                                                       deposit, status, termination_status, version, created_at, updated_at)
+                            values (?, ?, ?, ?, ?, 3000, 3000, ?, 'NONE', 0, ?, ?)
+                            """,
+                    houseId, tenantId, landlordId, Date.valueOf(start), Date.valueOf(end), status, now, now);
+        }
+    }
+}
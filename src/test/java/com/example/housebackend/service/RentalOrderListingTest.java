@@ -0,0 +1,102 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.housebackend.dto.DtoMapper;
+import com.example.housebackend.dto.order.RentalOrderResponse;
+import com.example.housebackend.repository.RentalOrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RentalOrderListingTest {
+
+    private static final int SEEDED_ORDERS = 30;
+
+    @Autowired
+    private RentalOrderService rentalOrderService;
+
+    @Autowired
+    private RentalOrderRepository rentalOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StatementCounter statements;
+    private Long tenantId;
+    private Long landlordId;
+
+    // 每三单一个已终止订单，让退租申请人与处理人两个可选连接都有数据
+    @BeforeAll
+    void seedOrders() {
+        statements = new StatementCounter(entityManagerFactory);
+        tenantId = jdbcTemplate.queryForObject("select id from users where username = 'tenant'", Long.class);
+        landlordId = jdbcTemplate.queryForObject("select id from users where username = 'landlord'", Long.class);
+        Long adminId = jdbcTemplate.queryForObject("select id from users where username = 'superadmin'", Long.class);
+        List<Long> houseIds = jdbcTemplate.queryForList("select id from houses where owner_id = ?", Long.class, landlordId);
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < SEEDED_ORDERS; i++) {
+            LocalDate start = LocalDate.now().plusMonths(i);
+            boolean terminated = i % 3 == 0;
+            jdbcTemplate.update("""
+                            insert into rental_orders (house_id, tenant_id, landlord_id, start_date, end_date, monthly_rent,
+                                                       deposit, status, termination_status, termination_requester_id,
+                                                       termination_resolver_id, termination_reason, version,
+                                                       created_at, updated_at)
+                            values (?, ?, ?, ?, ?, 3000, 3000, ?, ?, ?, ?, ?, 0, ?, ?)
+                            """,
+                    houseIds.get(i % houseIds.size()), tenantId, landlordId, Date.valueOf(start),
+                    Date.valueOf(start.plusDays(20)), terminated ? "TERMINATED" : "PENDING",
+                    terminated ? "APPROVED" : "NONE", terminated ? tenantId : null, terminated ? adminId : null,
+                    terminated ? "提前退租" : null, now, now);
+        }
+    }
+
+    @Test
+    void listingsAreOneProjectionQueryPlusCount() {
+        statements.assertIndependentOfPageSize(
+                () -> rentalOrderService.listForTenant(tenantId, PageRequest.of(0, 5)).getContent(),
+                () -> rentalOrderService.listForTenant(tenantId, PageRequest.of(0, 25)).getContent(), 2);
+        statements.assertIndependentOfPageSize(
+                () -> rentalOrderService.listForLandlord(landlordId, PageRequest.of(0, 5)).getContent(),
+                () -> rentalOrderService.listForLandlord(landlordId, PageRequest.of(0, 25)).getContent(), 2);
+        statements.assertIndependentOfPageSize(
+                () -> rentalOrderService.listForAdmin(PageRequest.of(0, 5)).getContent(),
+                () -> rentalOrderService.listForAdmin(PageRequest.of(0, 25)).getContent(), 2);
+    }
+
+    @Test
+    void projectionMatchesEntityMapping() {
+        // 共用测试库里还有其他测试类写入的订单，一页取完全部订单再比较
+        int total = (int) rentalOrderRepository.count();
+        List<RentalOrderResponse> projected = rentalOrderService.listForAdmin(PageRequest.of(0, total)).getContent();
+        List<RentalOrderResponse> mapped = new TransactionTemplate(transactionManager).execute(status ->
+                rentalOrderRepository.findAll().stream()
+                        .map(DtoMapper::toOrder)
+                        .toList());
+
+        assertThat(projected).containsExactlyInAnyOrderElementsOf(mapped);
+    }
+}
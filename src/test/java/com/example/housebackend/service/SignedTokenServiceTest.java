@@ -0,0 +1,192 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.housebackend.domain.auth.AuthToken;
+import com.example.housebackend.domain.user.User;
+import com.example.housebackend.domain.user.UserRole;
+import com.example.housebackend.exception.BadRequestException;
+import com.example.housebackend.repository.AuthTokenRepository;
+import com.example.housebackend.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SignedTokenServiceTest {
+
+    private static final String SECRET = "signed-token-test-secret";
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private SignedTokenService signedTokenService;
+
+    @Autowired
+    private AuthTokenRepository authTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private AuthTokenCache authTokenCache;
+
+    @Autowired
+    private LastLoginWriter lastLoginWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+    private SignedTokenService nodeA;
+    private SignedTokenService nodeB;
+
+    @BeforeAll
+    void registerUser() {
+        userId = authService.register("signed-token-user", PASSWORD, "签名令牌测试", "13800000001", UserRole.USER).getId();
+    }
+
+    // 两个共用密钥的实例模拟两台节点；nodeB 不缓存版本号，每次校验都回库
+    @BeforeEach
+    void setUp() {
+        nodeA = node(Duration.ofMinutes(5));
+        nodeB = node(Duration.ZERO);
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        String token = nodeA.issue(user(), Instant.now().plus(1, ChronoUnit.HOURS));
+        // 改签名的第一个字符，末位字符含填充位，改动可能解码出相同字节
+        int start = token.lastIndexOf('.') + 1;
+        String tampered = token.substring(0, start) + (token.charAt(start) == 'A' ? 'B' : 'A') + token.substring(start + 1);
+
+        assertThat(nodeA.verify(token).id()).isEqualTo(userId);
+        assertThatThrownBy(() -> nodeA.verify(tampered)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = nodeA.issue(user(), Instant.now().plus(1, ChronoUnit.HOURS));
+        int separator = token.lastIndexOf('.');
+        String payload = token.substring(SignedTokenService.TOKEN_PREFIX.length(), separator);
+        String claims = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+        String escalated = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(claims.replace(":USER:", ":ADMIN:").getBytes(StandardCharsets.UTF_8));
+
+        assertThat(escalated).isNotEqualTo(payload);
+        assertThatThrownBy(() -> nodeA.verify(SignedTokenService.TOKEN_PREFIX + escalated + token.substring(separator)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> node(Duration.ZERO, "another-secret").verify(token))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = nodeA.issue(user(), Instant.now().minusSeconds(5));
+
+        assertThatThrownBy(() -> nodeA.verify(token))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("访问令牌已过期");
+    }
+
+    @Test
+    void revokedJtiIsRejectedWhileOtherTokensStayValid() {
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        String revoked = nodeA.issue(user(), expiresAt);
+        String other = nodeA.issue(user(), expiresAt);
+
+        assertThat(revoke(nodeA, revoked)).isEqualTo(userId);
+
+        assertThatThrownBy(() -> nodeA.verify(revoked)).isInstanceOf(BadRequestException.class);
+        assertThat(nodeA.verify(other).id()).isEqualTo(userId);
+        assertThat(revoke(nodeA, "v1.不是令牌")).isNull();
+    }
+
+    @Test
+    void revocationOnAnotherNodeIsPickedUpOnRefresh() {
+        String token = nodeA.issue(user(), Instant.now().plus(1, ChronoUnit.HOURS));
+        assertThat(nodeB.verify(token).id()).isEqualTo(userId);
+
+        revoke(nodeA, token);
+        // 刷新前 nodeB 只知道启动时加载的注销记录
+        assertThat(nodeB.verify(token).id()).isEqualTo(userId);
+
+        nodeB.refreshRevocations();
+        assertThatThrownBy(() -> nodeB.verify(token)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> node(Duration.ZERO).verify(token)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void revokeSessionsBumpsTheVersionAndInvalidatesEarlierTokens() {
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        int before = user().getTokenVersion();
+        String local = signedTokenService.issue(user(), expiresAt);
+        String remote = nodeA.issue(user(), expiresAt);
+        assertThat(nodeB.verify(remote).id()).isEqualTo(userId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                authService.revokeSessions(userRepository.findById(userId).orElseThrow()));
+
+        assertThat(user().getTokenVersion()).isEqualTo(before + 1);
+        // 本节点在提交后清掉缓存的版本号，立即生效；其他节点在版本 TTL 过期后回库生效
+        assertThatThrownBy(() -> signedTokenService.verify(local)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> nodeB.verify(remote)).isInstanceOf(BadRequestException.class);
+        assertThat(signedTokenService.verify(signedTokenService.issue(user(), expiresAt)).id()).isEqualTo(userId);
+    }
+
+    @Test
+    void opaqueTokensAreStillAcceptedInSignedMode() {
+        AuthService signedAuth = new AuthService(userRepository, authTokenRepository, passwordHashingService,
+                authTokenCache, nodeA, lastLoginWriter, transactionManager);
+        AuthToken opaque = new AuthToken();
+        opaque.setUser(user());
+        opaque.setToken("opaque-" + System.nanoTime());
+        opaque.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
+        authTokenRepository.save(opaque);
+
+        String signed = signedAuth.login("signed-token-user", PASSWORD).getToken();
+
+        assertThat(signed).startsWith(SignedTokenService.TOKEN_PREFIX);
+        assertThat(signedAuth.requirePrincipal(signed).id()).isEqualTo(userId);
+        assertThat(signedAuth.requirePrincipal(opaque.getToken()).id()).isEqualTo(userId);
+    }
+
+    // 与 AuthService.logout 一致，在事务内写注销记录
+    private Long revoke(SignedTokenService node, String token) {
+        return new TransactionTemplate(transactionManager).execute(status -> node.revoke(token));
+    }
+
+    private User user() {
+        return userRepository.findById(userId).orElseThrow();
+    }
+
+    private SignedTokenService node(Duration versionTtl) {
+        return node(versionTtl, SECRET);
+    }
+
+    private SignedTokenService node(Duration versionTtl, String secret) {
+        SignedTokenService node = new SignedTokenService(authTokenRepository, userRepository, "signed", secret,
+                versionTtl, Duration.ofSeconds(30));
+        node.loadRevocations();
+        return node;
+    }
+}
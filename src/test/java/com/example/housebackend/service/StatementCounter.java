@@ -0,0 +1,35 @@
+package com.example.housebackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+// 基于 Hibernate 统计的 SQL 计数，需开启 hibernate.generate_statistics
+final class StatementCounter {
+
+    private final Statistics statistics;
+
+    StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // 返回执行期间准备的语句数；结果为空说明测试数据没有覆盖到，直接失败
+    long count(Supplier<? extends Collection<?>> query) {
+        statistics.clear();
+        assertThat(query.get()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // 小页与大页的语句数相同且不超过 max，即不存在按行触发的 N+1 查询
+    void assertIndependentOfPageSize(Supplier<? extends Collection<?>> smallPage,
+                                     Supplier<? extends Collection<?>> largePage,
+                                     long max) {
+        long small = count(smallPage);
+        long large = count(largePage);
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(max);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.housebackend.service;
+
+import com.example.housebackend.HousebackendApplication;
+import com.example.housebackend.domain.house.House;
+import com.example.housebackend.dto.statistics.DistributionItem;
+import com.example.housebackend.repository.HouseRepository;
+import jakarta.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 手动运行的分布统计基准：向内存 H2 写入指定数量的房源，对比旧的 findAll 内存分组、
+ * 数据库分组聚合与汇总表读取三种实现的耗时和当前线程分配的内存。
+ * 参数：[房源数量] [轮次]，默认 1000000 5。
+ * 建议以 -Xmx4g 运行，旧实现在百万级数据下需要一次性加载全部实体。
+ */
+public final class StatisticsDistributionBenchmark {
+
+    private StatisticsDistributionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int houses = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(HousebackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:distribution_benchmark;MODE=MYSQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed(jdbcTemplate, houses);
+            context.getBean(StatisticsRollupService.class).reconcile();
+            StatisticsService statisticsService = context.getBean(StatisticsService.class);
+            HouseRepository houseRepository = context.getBean(HouseRepository.class);
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            transactionTemplate.setReadOnly(true);
+
+            System.out.printf("houses=%d rounds=%d%n", jdbcTemplate.queryForObject("select count(*) from houses", Long.class), rounds);
+            System.out.println("variant                  avg_ms   allocated_mb");
+            measure("findAll (before)", rounds, () -> transactionTemplate.execute(status -> {
+                List<DistributionItem> items = new ArrayList<>(legacySubway(houseRepository));
+                items.addAll(legacyRegion(houseRepository));
+                return items;
+            }));
+            measure("group by", rounds, () -> transactionTemplate.execute(status -> {
+                List<DistributionItem> items = new ArrayList<>(groupedSubway(entityManager));
+                items.addAll(groupedRegion(entityManager));
+                return items;
+            }));
+            measure("rollup (after)", rounds, () -> {
+                List<DistributionItem> items = new ArrayList<>(statisticsService.subwayDistribution());
+                items.addAll(statisticsService.regionDistribution());
+                return items;
+            });
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int houses) {
+        Long ownerId = jdbcTemplate.queryForObject("select min(id) from users", Long.class);
+        List<Long> regionIds = jdbcTemplate.queryForList("select id from regions", Long.class);
+        List<Long> subwayIds = jdbcTemplate.queryForList("select id from subway_lines", Long.class);
+        Timestamp now = Timestamp.from(Instant.now());
+        int batchSize = 5_000;
+        for (int offset = 0; offset < houses; offset += batchSize) {
+            int size = Math.min(batchSize, houses - offset);
+            List<Object[]> rows = new ArrayList<>(size);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < size; i++) {
+                Long regionId = regionIds.isEmpty() || random.nextInt(10) == 0
+                        ? null : regionIds.get(random.nextInt(regionIds.size()));
+                Long subwayId = subwayIds.isEmpty() || random.nextBoolean()
+                        ? null : subwayIds.get(random.nextInt(subwayIds.size()));
+                rows.add(new Object[]{"基准房源 " + (offset + i), 3000, "PUBLISHED", false, now, now,
+                        ownerId, regionId, subwayId});
+            }
+            jdbcTemplate.batchUpdate("insert into houses (title, rent_price, status, recommended, created_at, "
+                    + "updated_at, owner_id, region_id, subway_line_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    private static List<DistributionItem> legacySubway(HouseRepository houseRepository) {
+        List<House> houses = houseRepository.findAll();
+        long withSubway = houses.stream().filter(h -> h.getSubwayLine() != null).count();
+        return List.of(
+                new DistributionItem("靠近地铁", withSubway),
+                new DistributionItem("非地铁房源", houses.size() - withSubway));
+    }
+
+    private static List<DistributionItem> legacyRegion(HouseRepository houseRepository) {
+        Map<String, Long> counted = houseRepository.findAll().stream()
+                .collect(Collectors.groupingBy(
+                        house -> house.getRegion() != null ? house.getRegion().getName() : "未分配区域",
+                        Collectors.counting()));
+        return counted.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .map(entry -> new DistributionItem(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // 汇总表之前的实现：由数据库分组计数，不加载实体
+    private static List<DistributionItem> groupedSubway(EntityManager entityManager) {
+        Object[] row = entityManager.createQuery(
+                        "select count(h), count(h.subwayLine.id) from House h", Object[].class)
+                .getSingleResult();
+        long total = (Long) row[0];
+        long withSubway = (Long) row[1];
+        return List.of(
+                new DistributionItem("靠近地铁", withSubway),
+                new DistributionItem("非地铁房源", total - withSubway));
+    }
+
+    private static List<DistributionItem> groupedRegion(EntityManager entityManager) {
+        Map<String, Long> counted = entityManager.createQuery(
+                        "select r.name, count(h) from House h left join h.region r group by r.id, r.name", Object[].class)
+                .getResultList().stream()
+                .collect(Collectors.toMap(
+                        row -> row[0] != null ? (String) row[0] : "未分配区域",
+                        row -> (Long) row[1],
+                        Long::sum));
+        return counted.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .map(entry -> new DistributionItem(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static void measure(String name, int rounds, Supplier<List<DistributionItem>> task) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        task.get();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.get();
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000D / rounds;
+        double allocatedMb = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / 1024D / 1024D / rounds;
+        System.out.printf("%-22s %8.1f %14.1f%n", name, avgMillis, allocatedMb);
+    }
+}